@@ -0,0 +1,218 @@
+package com.vibecoding.calculator.engine;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Fixed-coupon bond priced between coupon dates. Coupons fall every
+ * 12 / frequency months back from maturity; the fraction of the current
+ * coupon period comes from the {@link DayCount}. Price, duration and
+ * convexity come out of a single pass over the remaining coupons.
+ *
+ * <p>Prices are per {@code faceValue}; yields and coupon rates are annual
+ * percentages compounded at the coupon frequency.</p>
+ */
+public class Bond {
+    /** Target number of coupon evaluations handled by one parallel leaf. */
+    private static final int COUPONS_PER_TASK = 1 << 15;
+
+    private final double faceValue;
+    private final double couponRate;
+    private final int frequency;
+    private final long maturity;
+    private final DayCount dayCount;
+
+    public Bond(double faceValue, double couponRate, int frequency, LocalDate maturity, DayCount dayCount) {
+        if (frequency != 1 && frequency != 2 && frequency != 4 && frequency != 12) {
+            throw new IllegalArgumentException("Frequência deve ser 1, 2, 4 ou 12");
+        }
+        this.faceValue = faceValue;
+        this.couponRate = couponRate;
+        this.frequency = frequency;
+        this.maturity = maturity.toEpochDay();
+        this.dayCount = dayCount;
+    }
+
+    public double getFaceValue() { return faceValue; }
+    public double getCouponRate() { return couponRate; }
+    public int getFrequency() { return frequency; }
+    public LocalDate getMaturity() { return LocalDate.ofEpochDay(maturity); }
+
+    /** Price and risk measures at one settlement date and yield. */
+    public static class Analytics {
+        public final double dirtyPrice;
+        public final double cleanPrice;
+        public final double accruedInterest;
+        /** Years. */
+        public final double macaulayDuration;
+        /** -(dP/dy) / P, per unit of annual yield. */
+        public final double modifiedDuration;
+        /** (d2P/dy2) / P. */
+        public final double convexity;
+
+        public Analytics(double dirtyPrice, double accruedInterest, double macaulayDuration,
+                         double modifiedDuration, double convexity) {
+            this.dirtyPrice = dirtyPrice;
+            this.cleanPrice = dirtyPrice - accruedInterest;
+            this.accruedInterest = accruedInterest;
+            this.macaulayDuration = macaulayDuration;
+            this.modifiedDuration = modifiedDuration;
+            this.convexity = convexity;
+        }
+    }
+
+    /**
+     * Position of a settlement date in the coupon schedule: {@code [0]} is
+     * the fraction of a period to the next coupon, {@code [1]} the number
+     * of coupons left.
+     */
+    void locate(long settlement, double[] out) {
+        if (settlement >= maturity) throw new IllegalArgumentException("Liquidação após o vencimento");
+        LocalDate mat = LocalDate.ofEpochDay(maturity);
+        LocalDate settle = LocalDate.ofEpochDay(settlement);
+        int step = 12 / frequency;
+        // Estimate the coupon count from whole months, then correct by one either way
+        long months = ChronoUnit.MONTHS.between(settle, mat);
+        int k = (int) (months / step);
+        while (mat.minusMonths((long) k * step).toEpochDay() > settlement) k++;
+        while (k > 0 && mat.minusMonths((long) (k - 1) * step).toEpochDay() <= settlement) k--;
+        long previous = mat.minusMonths((long) k * step).toEpochDay();
+        long next = mat.minusMonths((long) (k - 1) * step).toEpochDay();
+        out[0] = dayCount.yearFraction(settlement, next) / dayCount.yearFraction(previous, next);
+        out[1] = k;
+    }
+
+    public Analytics analytics(LocalDate settlement, double yield) {
+        double[] pos = new double[2];
+        locate(settlement.toEpochDay(), pos);
+        double[] sums = new double[3];
+        double v = sums(yield / 100.0 / frequency, pos[0], (int) pos[1], sums);
+        double price = sums[0];
+        double accrued = faceValue * couponRate / 100.0 / frequency * (1 - pos[0]);
+        double macaulay = sums[1] / (price * frequency);
+        double modified = sums[1] * v / (price * frequency);
+        double convexity = sums[2] * v * v / (price * frequency * frequency);
+        return new Analytics(price, accrued, macaulay, modified, convexity);
+    }
+
+    public double dirtyPrice(LocalDate settlement, double yield) {
+        double[] pos = new double[2];
+        locate(settlement.toEpochDay(), pos);
+        return sums(yield / 100.0 / frequency, pos[0], (int) pos[1], null);
+    }
+
+    public double cleanPrice(LocalDate settlement, double yield) {
+        return dirtyPrice(settlement, yield) - accruedInterest(settlement);
+    }
+
+    public double accruedInterest(LocalDate settlement) {
+        double[] pos = new double[2];
+        locate(settlement.toEpochDay(), pos);
+        return faceValue * couponRate / 100.0 / frequency * (1 - pos[0]);
+    }
+
+    /**
+     * Yield to maturity (annual percent) that reproduces a clean price.
+     * Newton on the price with the bracket kept, as for IRR.
+     */
+    public double yieldToMaturity(LocalDate settlement, double cleanPrice) {
+        double[] pos = new double[2];
+        locate(settlement.toEpochDay(), pos);
+        double w = pos[0];
+        int n = (int) pos[1];
+        double coupon = faceValue * couponRate / 100.0 / frequency;
+        double target = cleanPrice + coupon * (1 - w);
+        if (target <= 0) throw new ArithmeticException("Preço inválido");
+
+        double[] sums = new double[3];
+        SafeNewton.Function f = (i, d) -> {
+            double v = sums(i, w, n, sums);
+            d[0] = -sums[1] * v;
+            return sums[0] - target;
+        };
+        // Current-yield style guess per period; the bracket widens around it in ln(1 + i)
+        double years = (w + n - 1) / frequency;
+        double guess = (couponRate / 100.0 + (faceValue - cleanPrice) / (faceValue * Math.max(years, 1.0 / frequency)))
+                / frequency;
+        if (!(guess > -0.9)) guess = 0.01;
+        double rate = SafeNewton.solveNear(f, guess, 1e-14, new double[2]);
+        if (Double.isNaN(rate)) throw new ArithmeticException("YTM não encontrada");
+        return rate * frequency * 100;
+    }
+
+    /**
+     * One pass over the coupons at periodic rate i: {@code sums[0]} = price,
+     * {@code sums[1]} = sum t PV_t, {@code sums[2]} = sum t (t + 1) PV_t, with
+     * t in periods. Returns v = 1 / (1 + i). {@code sums} may be null when
+     * only the price is needed.
+     */
+    private double sums(double i, double w, int n, double[] sums) {
+        double coupon = faceValue * couponRate / 100.0 / frequency;
+        double v = 1 / (1 + i);
+        double df = Math.exp(-w * Math.log1p(i));
+        double s0 = 0, s1 = 0, s2 = 0;
+        for (int j = 0; j < n; j++) {
+            double cf = j == n - 1 ? coupon + faceValue : coupon;
+            double pv = cf * df;
+            double t = w + j;
+            s0 += pv;
+            s1 += t * pv;
+            s2 += t * (t + 1) * pv;
+            df *= v;
+        }
+        if (sums == null) return s0;
+        sums[0] = s0;
+        sums[1] = s1;
+        sums[2] = s2;
+        return v;
+    }
+
+    // ========== BATCH ==========
+
+    /**
+     * Dirty prices of every bond at its yield plus every shock, in
+     * parallel. {@code out[s * shocks.length + k]} receives bond s at
+     * {@code yields[s] + shocksBp[k] / 100}.
+     */
+    public static void priceShocks(Bond[] bonds, double[] yields, double[] shocksBp, LocalDate settlement, double[] out) {
+        int ns = shocksBp.length;
+        if (yields.length < bonds.length || out.length < (long) bonds.length * ns) {
+            throw new IllegalArgumentException("Saída pequena demais");
+        }
+        long settle = settlement.toEpochDay();
+        ParallelRange.forEach(bonds.length, grain(ns), (from, to) -> {
+            double[] pos = new double[2];
+            for (int s = from; s < to; s++) {
+                Bond bond = bonds[s];
+                bond.locate(settle, pos);
+                for (int k = 0; k < ns; k++) {
+                    double y = (yields[s] + shocksBp[k] / 100.0) / 100.0 / bond.frequency;
+                    out[s * ns + k] = bond.sums(y, pos[0], (int) pos[1], null);
+                }
+            }
+        });
+    }
+
+    /** Modified duration and convexity of every bond at its yield, in parallel. Either output may be null. */
+    public static void risk(Bond[] bonds, double[] yields, LocalDate settlement,
+                            double[] modifiedDuration, double[] convexity) {
+        long settle = settlement.toEpochDay();
+        ParallelRange.forEach(bonds.length, grain(1), (from, to) -> {
+            double[] pos = new double[2];
+            double[] sums = new double[3];
+            for (int s = from; s < to; s++) {
+                Bond bond = bonds[s];
+                int f = bond.frequency;
+                bond.locate(settle, pos);
+                double v = bond.sums(yields[s] / 100.0 / f, pos[0], (int) pos[1], sums);
+                if (modifiedDuration != null) modifiedDuration[s] = sums[1] * v / (sums[0] * f);
+                if (convexity != null) convexity[s] = sums[2] * v * v / (sums[0] * f * f);
+            }
+        });
+    }
+
+    private static int grain(int shocks) {
+        // Assume semiannual bonds of about ten years when sizing leaves
+        return Math.max(1, COUPONS_PER_TASK / (20 * Math.max(shocks, 1)));
+    }
+}
@@ -0,0 +1,74 @@
+package com.vibecoding.calculator.engine;
+
+/**
+ * Many cash-flow series in one flat primitive layout: series {@code s}
+ * occupies {@code values[offsets[s] .. offsets[s + 1])}, period 0 first.
+ * NPV and IRR run over the whole portfolio in parallel, writing into
+ * caller-provided arrays with no allocation per series.
+ */
+public class CashFlowPortfolio {
+    /** Target number of cash flows handled by one parallel leaf. */
+    private static final int FLOWS_PER_TASK = 1 << 15;
+
+    private final double[] values;
+    private final int[] offsets;
+
+    /**
+     * @param values  all cash flows, series after series
+     * @param offsets {@code size() + 1} ascending start indices; the last
+     *                entry is the end of the final series
+     */
+    public CashFlowPortfolio(double[] values, int[] offsets) {
+        if (offsets.length == 0 || offsets[0] < 0 || offsets[offsets.length - 1] > values.length) {
+            throw new IllegalArgumentException("Offsets inválidos");
+        }
+        for (int s = 1; s < offsets.length; s++) {
+            if (offsets[s] < offsets[s - 1]) throw new IllegalArgumentException("Offsets devem ser crescentes");
+        }
+        this.values = values;
+        this.offsets = offsets;
+    }
+
+    public int size() { return offsets.length - 1; }
+
+    /**
+     * NPV of every series at every rate (percent per period).
+     * {@code out[s * rates.length + k]} receives series s at rates[k].
+     */
+    public void npv(double[] rates, double[] out) {
+        int nr = rates.length;
+        if (out.length < (long) size() * nr) throw new IllegalArgumentException("Saída pequena demais");
+        ParallelRange.forEach(size(), grain(), (from, to) -> {
+            for (int s = from; s < to; s++) {
+                int lo = offsets[s], hi = offsets[s + 1];
+                for (int k = 0; k < nr; k++) {
+                    out[s * nr + k] = FinancialEngine.npvHorner(rates[k] / 100.0, values, lo, hi);
+                }
+            }
+        });
+    }
+
+    /** IRR of every series, in percent; NaN where the series has no IRR or several. */
+    public void irr(double[] out) {
+        irr(out, FinancialEngine.IRR_TOLERANCE);
+    }
+
+    public void irr(double[] out, double tolerance) {
+        if (out.length < size()) throw new IllegalArgumentException("Saída pequena demais");
+        double tol = tolerance / 100.0;
+        ParallelRange.forEach(size(), grain(), (from, to) -> {
+            FinancialEngine.Horner f = new FinancialEngine.Horner();
+            for (int s = from; s < to; s++) {
+                out[s] = FinancialEngine.irrIfUnique(values, offsets[s], offsets[s + 1], tol, f) * 100;
+            }
+        });
+    }
+
+    private int grain() {
+        int n = size();
+        if (n == 0) return 1;
+        long flows = offsets[n] - offsets[0];
+        long avg = Math.max(flows / n, 1);
+        return (int) Math.max(1, FLOWS_PER_TASK / avg);
+    }
+}
@@ -0,0 +1,222 @@
+package com.vibecoding.calculator.engine;
+
+import java.util.Arrays;
+
+/**
+ * Cash-flow register in the style of the HP 12C CFj / Nj keys: runs of
+ * equal flows stored as (amount, count) pairs in primitive arrays. Flow 0
+ * falls now and each later flow one period after the previous one.
+ *
+ * <p>NPV sums each run as a geometric series, so a 30-year monthly lease
+ * entered as a few runs costs a few exp calls instead of 360 terms. IRR
+ * is solved on the same closed form and its derivative.</p>
+ */
+public class CashFlowRegister {
+    private double[] amounts = new double[8];
+    private int[] counts = new int[8];
+    private int runs;
+    private long periods;
+
+    /** Register holding {@code flows}, with consecutive equal flows grouped into runs. */
+    public static CashFlowRegister of(double[] flows) {
+        CashFlowRegister register = new CashFlowRegister();
+        for (double flow : flows) {
+            int last = register.runs - 1;
+            if (last >= 0 && register.amounts[last] == flow && register.counts[last] < Integer.MAX_VALUE) {
+                register.counts[last]++;
+                register.periods++;
+            } else {
+                register.add(flow);
+            }
+        }
+        return register;
+    }
+
+    /** Independent copy of this register. */
+    public CashFlowRegister copy() {
+        CashFlowRegister register = new CashFlowRegister();
+        register.amounts = Arrays.copyOf(amounts, Math.max(runs, 8));
+        register.counts = Arrays.copyOf(counts, Math.max(runs, 8));
+        register.runs = runs;
+        register.periods = periods;
+        return register;
+    }
+
+    /** CFj: appends one flow as a new run. */
+    public CashFlowRegister add(double amount) {
+        return add(amount, 1);
+    }
+
+    /** Appends {@code count} equal flows as one run. */
+    public CashFlowRegister add(double amount, int count) {
+        if (count <= 0) throw new IllegalArgumentException("Nj deve ser positivo");
+        if (runs == amounts.length) {
+            amounts = Arrays.copyOf(amounts, runs * 2);
+            counts = Arrays.copyOf(counts, runs * 2);
+        }
+        amounts[runs] = amount;
+        counts[runs] = count;
+        runs++;
+        periods += count;
+        return this;
+    }
+
+    /** Nj: sets how many times the last flow repeats. */
+    public CashFlowRegister setCount(int count) {
+        if (runs == 0) throw new IllegalStateException("Sem cash flows");
+        if (count <= 0) throw new IllegalArgumentException("Nj deve ser positivo");
+        periods += count - counts[runs - 1];
+        counts[runs - 1] = count;
+        return this;
+    }
+
+    public void clear() {
+        runs = 0;
+        periods = 0;
+    }
+
+    public boolean isEmpty() { return runs == 0; }
+
+    /** Number of runs entered. */
+    public int runs() { return runs; }
+
+    /** Number of flows once every run is expanded. */
+    public long periods() { return periods; }
+
+    public double amount(int run) {
+        checkRun(run);
+        return amounts[run];
+    }
+
+    public int count(int run) {
+        checkRun(run);
+        return counts[run];
+    }
+
+    /** Flows expanded one per period. */
+    public double[] toArray() {
+        if (periods > Integer.MAX_VALUE - 8) throw new IllegalStateException("Fluxo grande demais para expandir");
+        double[] flows = new double[(int) periods];
+        int t = 0;
+        for (int k = 0; k < runs; k++) {
+            Arrays.fill(flows, t, t + counts[k], amounts[k]);
+            t += counts[k];
+        }
+        return flows;
+    }
+
+    /** NPV at a periodic rate (percent), one geometric series per run. */
+    public double npv(double rate) {
+        if (rate <= -100) throw new ArithmeticException("Taxa deve ser maior que -100%");
+        return value(Math.log1p(rate / 100.0), null);
+    }
+
+    /** Internal Rate of Return (percent); fails if there is none or more than one. */
+    public double irr() {
+        return irr(FinancialEngine.IRR_TOLERANCE);
+    }
+
+    public double irr(double tolerance) {
+        int changes = signChanges();
+        if (changes == 0) throw new ArithmeticException("TIR inexistente: fluxos sem troca de sinal");
+        if (changes == 1) {
+            double r = irrUnique(tolerance / 100.0);
+            if (Double.isNaN(r)) throw new ArithmeticException("TIR não encontrada");
+            return r * 100;
+        }
+        double[] all = irrAll(tolerance);
+        if (all.length == 0) throw new ArithmeticException("TIR inexistente");
+        if (all.length > 1) throw new ArithmeticException("Múltiplas TIR (" + all.length + "), use irrAll");
+        return all[0];
+    }
+
+    /**
+     * All IRRs (percent) in (-99.9%, 1000%] where NPV changes sign, ascending,
+     * scanning the same grid as {@link FinancialEngine#irrAll}.
+     */
+    public double[] irrAll(double tolerance) {
+        double[] roots = new double[signChanges()];
+        int found = SafeNewton.scanRoots(this::valueAtRate, SafeNewton.U_MIN, SafeNewton.U_MAX,
+                SafeNewton.SCAN_STEPS, tolerance / 100.0, roots, new double[2]);
+        double[] result = Arrays.copyOf(roots, found);
+        for (int k = 0; k < found; k++) result[k] *= 100;
+        return result;
+    }
+
+    /** IRR (fraction) when flows change sign once, or NaN if no bracket is found or Newton does not converge. */
+    private double irrUnique(double tol) {
+        // Guess from the value-weighted mean times of inflows and outflows
+        double sumPos = 0, sumNeg = 0, tPos = 0, tNeg = 0;
+        long start = 0;
+        for (int k = 0; k < runs; k++) {
+            double total = amounts[k] * counts[k];
+            double mid = start + (counts[k] - 1) / 2.0;
+            if (total > 0) { sumPos += total; tPos += total * mid; }
+            else { sumNeg -= total; tNeg -= total * mid; }
+            start += counts[k];
+        }
+        double span = tPos / sumPos - tNeg / sumNeg;
+        double guess = span == 0 ? 0.1 : Math.expm1(Math.log(sumPos / sumNeg) / span);
+        if (!(guess > -0.99 && guess < 10)) guess = 0.1;
+        return SafeNewton.solveNear(this::valueAtRate, guess, tol, new double[2]);
+    }
+
+    /** NPV at rate r (fraction) with dNPV/dr, so solver tolerances apply to the rate itself. */
+    private double valueAtRate(double r, double[] derivative) {
+        double npv = value(Math.log1p(r), derivative);
+        derivative[0] /= 1 + r;
+        return npv;
+    }
+
+    /**
+     * NPV as a function of u = ln(1 + r), storing dNPV/du in
+     * {@code derivative[0]} when it is not null. A run of c flows starting
+     * at period s contributes a e^(-us) (1 - e^(-uc)) / (1 - e^(-u)).
+     */
+    private double value(double u, double[] derivative) {
+        double sum = 0, dsum = 0;
+        double em1 = Math.expm1(-u);
+        long start = 0;
+        for (int k = 0; k < runs; k++) {
+            int c = counts[k];
+            double a = amounts[k];
+            if (a != 0) {
+                double lead = Math.exp(-u * start);
+                double emc = Math.expm1(-u * c);
+                // expm1 keeps the ratio accurate for any u != 0
+                double s0 = u == 0 ? c : emc / em1;
+                // g = sum of j e^(-uj) for j < c = -d(s0)/du; the closed
+                // form cancels near u = 0, so use the series there
+                double g;
+                if (Math.abs(u * c) < 1e-4) {
+                    double cc = c;
+                    g = cc * (cc - 1) / 2 - u * (cc - 1) * cc * (2 * cc - 1) / 6;
+                } else {
+                    g = (c * (emc + 1) * em1 - (em1 + 1) * emc) / (em1 * em1);
+                }
+                sum += a * lead * s0;
+                if (derivative != null) dsum -= a * lead * (start * s0 + g);
+            }
+            start += c;
+        }
+        if (derivative != null) derivative[0] = dsum;
+        return sum;
+    }
+
+    /** Sign changes between nonzero runs; Descartes bounds the number of IRRs by it. */
+    public int signChanges() {
+        int changes = 0;
+        double last = 0;
+        for (int k = 0; k < runs; k++) {
+            double a = amounts[k];
+            if (a == 0) continue;
+            if (last != 0 && (a < 0) != (last < 0)) changes++;
+            last = a;
+        }
+        return changes;
+    }
+
+    private void checkRun(int run) {
+        if (run < 0 || run >= runs) throw new IndexOutOfBoundsException("Fluxo inexistente: " + run);
+    }
+}
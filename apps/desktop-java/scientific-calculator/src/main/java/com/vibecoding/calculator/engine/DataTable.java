@@ -0,0 +1,227 @@
+package com.vibecoding.calculator.engine;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Excel-style data table: one target function evaluated over a grid of
+ * one or two varying TVM registers, the others held at base values.
+ *
+ * <p>The expensive part of every target is the growth factor (1 + i)^n.
+ * It is computed once per grid when neither I nor N varies, once per row
+ * or column when only one of them does, and by repeated multiplication
+ * along an evenly spaced N axis, so most cells are plain arithmetic.
+ * Rows are filled in parallel.</p>
+ */
+public class DataTable {
+    /**
+     * PMT, PV and FV solve the TVM equation like the HP 12C keys.
+     * BOND_PRICE reads face value from FV, coupon rate per period from
+     * PMT, yield from I and periods from N (as {@link FinancialEngine#bondPrice}).
+     * NPV discounts the cash flows set with {@link #setCashFlows} at I.
+     */
+    public enum Target { PMT, PV, FV, BOND_PRICE, NPV }
+
+    public enum Input { N, I, PV, PMT, FV }
+
+    private final Target target;
+    private final double[] base = new double[Input.values().length];
+    private boolean beginMode;
+    private CashFlowRegister cashFlows = new CashFlowRegister();
+    private Input rowInput = Input.I;
+    private double[] rowValues = {0};
+    private Input columnInput;
+    private double[] columnValues = {0};
+
+    public DataTable(Target target) {
+        this.target = target;
+    }
+
+    /** Base register values used for every input that is not on an axis. */
+    public DataTable setBase(double n, double i, double pv, double pmt, double fv, boolean beginMode) {
+        base[Input.N.ordinal()] = n;
+        base[Input.I.ordinal()] = i;
+        base[Input.PV.ordinal()] = pv;
+        base[Input.PMT.ordinal()] = pmt;
+        base[Input.FV.ordinal()] = fv;
+        this.beginMode = beginMode;
+        return this;
+    }
+
+    public DataTable setCashFlows(double[] cashFlows) {
+        this.cashFlows = CashFlowRegister.of(cashFlows);
+        return this;
+    }
+
+    /** Cash flows for NPV as grouped runs; each cell then costs one term per run. */
+    public DataTable setCashFlows(CashFlowRegister cashFlows) {
+        this.cashFlows = cashFlows.copy();
+        return this;
+    }
+
+    public DataTable setRows(Input input, double[] values) {
+        if (values.length == 0) throw new IllegalArgumentException("Eixo vazio");
+        this.rowInput = input;
+        this.rowValues = values.clone();
+        return this;
+    }
+
+    /** Second axis; leave unset (or null) for a one-variable table with a single column. */
+    public DataTable setColumns(Input input, double[] values) {
+        if (input != null && values.length == 0) throw new IllegalArgumentException("Eixo vazio");
+        this.columnInput = input;
+        this.columnValues = input == null ? new double[]{0} : values.clone();
+        return this;
+    }
+
+    public int rows() { return rowValues.length; }
+    public int columns() { return columnValues.length; }
+    public Target getTarget() { return target; }
+
+    /** Evenly spaced axis values from {@code from} to {@code to} inclusive. */
+    public static double[] range(double from, double to, int count) {
+        if (count <= 0) throw new IllegalArgumentException("Quantidade inválida");
+        double[] values = new double[count];
+        for (int k = 0; k < count; k++) values[k] = count == 1 ? from : from + (to - from) * k / (count - 1);
+        return values;
+    }
+
+    /** Fills and returns the grid, row-major: cell (r, c) at {@code r * columns() + c}. */
+    public double[] compute() {
+        double[] out = new double[rows() * columns()];
+        fill(out);
+        return out;
+    }
+
+    public void fill(double[] out) {
+        int rows = rows(), cols = columns();
+        if (out.length < (long) rows * cols) throw new IllegalArgumentException("Saída pequena demais");
+        if (columnInput != null && columnInput == rowInput) throw new IllegalArgumentException("Eixos devem ser diferentes");
+        if (target == Target.NPV && (rowInput != Input.I || columnInput != null)) {
+            throw new IllegalArgumentException("NPV varia apenas a taxa (I) nas linhas");
+        }
+        boolean rowAffects = rowInput == Input.N || rowInput == Input.I;
+        boolean colAffects = columnInput == Input.N || columnInput == Input.I;
+        // Growth that depends on the column alone is shared by every row
+        double[] colGrowth = null;
+        double[] colLog = null;
+        if (colAffects && !rowAffects) {
+            colGrowth = new double[cols];
+            double[] in = base.clone();
+            for (int c = 0; c < cols; c++) {
+                in[columnInput.ordinal()] = columnValues[c];
+                colGrowth[c] = growth(in[Input.I.ordinal()], in[Input.N.ordinal()]);
+            }
+        } else if (columnInput == Input.I) {
+            colLog = new double[cols];
+            for (int c = 0; c < cols; c++) colLog[c] = Math.log1p(columnValues[c] / 100.0);
+        }
+        boolean evenN = columnInput == Input.N && rowAffects && isEven(columnValues);
+        double[] sharedGrowth = colGrowth, sharedLog = colLog;
+        ParallelRange.forEach(rows, Math.max(1, (1 << 15) / cols), (from, to) -> {
+            double[] in = new double[base.length];
+            for (int r = from; r < to; r++) {
+                System.arraycopy(base, 0, in, 0, base.length);
+                in[rowInput.ordinal()] = rowValues[r];
+                fillRow(in, out, r * cols, sharedGrowth, sharedLog, evenN);
+            }
+        });
+    }
+
+    private void fillRow(double[] in, double[] out, int offset, double[] colGrowth, double[] colLog, boolean evenN) {
+        if (target == Target.NPV) {
+            out[offset] = cashFlows.npv(in[Input.I.ordinal()]);
+            return;
+        }
+        int cols = columns();
+        int ci = columnInput == null ? -1 : columnInput.ordinal();
+        double rowLog = Math.log1p(in[Input.I.ordinal()] / 100.0);
+        double f = 0, step = 1;
+        if (ci < 0 || (columnInput != Input.N && columnInput != Input.I)) {
+            f = Math.exp(in[Input.N.ordinal()] * rowLog);
+        } else if (evenN) {
+            // q^(n0 + k d) = q^n0 (q^d)^k along an evenly spaced N axis
+            f = Math.exp(columnValues[0] * rowLog);
+            step = cols > 1 ? Math.exp((columnValues[1] - columnValues[0]) * rowLog) : 1;
+        }
+        for (int c = 0; c < cols; c++) {
+            if (ci >= 0) in[ci] = columnValues[c];
+            double g;
+            if (colGrowth != null) {
+                g = colGrowth[c];
+            } else if (colLog != null) {
+                g = Math.exp(in[Input.N.ordinal()] * colLog[c]);
+            } else if (evenN) {
+                g = f;
+                f *= step;
+            } else if (columnInput == Input.N) {
+                g = Math.exp(columnValues[c] * rowLog);
+            } else {
+                g = f;
+            }
+            out[offset + c] = cell(in, g);
+        }
+    }
+
+    /**
+     * Target as a function of one register, the others at their base
+     * values; this is what {@link GoalSeek} solves. Safe to call from
+     * several threads.
+     */
+    public DoubleUnaryOperator function(Input input) {
+        double[] fixed = base.clone();
+        int k = input.ordinal();
+        if (target == Target.NPV) {
+            if (input != Input.I) throw new IllegalArgumentException("NPV varia apenas a taxa (I)");
+            CashFlowRegister cf = cashFlows;
+            return cf::npv;
+        }
+        return x -> {
+            double[] in = fixed.clone();
+            in[k] = x;
+            return cell(in, growth(in[Input.I.ordinal()], in[Input.N.ordinal()]));
+        };
+    }
+
+    /** (1 + i)^n with i in percent. */
+    private static double growth(double rate, double n) {
+        return Math.exp(n * Math.log1p(rate / 100.0));
+    }
+
+    /** Target value from the registers and the precomputed growth factor f = (1 + i)^n. */
+    private double cell(double[] in, double f) {
+        double n = in[Input.N.ordinal()];
+        double i = in[Input.I.ordinal()] / 100.0;
+        double pv = in[Input.PV.ordinal()];
+        double pmt = in[Input.PMT.ordinal()];
+        double fv = in[Input.FV.ordinal()];
+        double t = beginMode ? 1 : 0;
+        // Same formulas as FinancialEngine, with f in place of Math.pow(1 + i, n)
+        switch (target) {
+            case PMT:
+                if (i == 0) return -(pv + fv) / n;
+                return -(pv * f + fv) / (((f - 1) / i) * (1 + i * t));
+            case PV:
+                if (i == 0) return -(fv + pmt * n);
+                return -(fv / f + pmt * ((f - 1) / (i * f)) * (1 + i * t));
+            case FV:
+                if (i == 0) return -(pv + pmt * n);
+                return -(pv * f + pmt * ((f - 1) / i) * (1 + i * t));
+            case BOND_PRICE: {
+                double c = fv * pmt / 100.0;
+                if (i == 0) return c * n + fv;
+                return c * (1 - 1 / f) / i + fv / f;
+            }
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    private static boolean isEven(double[] values) {
+        if (values.length < 3) return values.length == 2;
+        double d = values[1] - values[0];
+        for (int k = 2; k < values.length; k++) {
+            if (Math.abs(values[k] - values[k - 1] - d) > 1e-9 * Math.max(1, Math.abs(d))) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,404 @@
+package com.vibecoding.calculator.engine;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * Named numeric columns for the statistics and regression functions,
+ * loaded from CSV or from a simple binary columnar file.
+ *
+ * <p>CSV files are memory-mapped and cut into chunks at line breaks; the
+ * chunks count their rows and then parse in parallel straight into one
+ * {@code double[]} per column, with no per-line strings or boxing; numbers
+ * are read by a byte-level parser that agrees with Double.parseDouble.
+ * Binary files are mapped column by column and read in place, so opening
+ * one costs nothing whatever its size. Either way columns are exposed as read-only
+ * {@link DoubleBuffer} views that {@link StatsAccumulator},
+ * {@link RegressionAccumulator} and {@link QuantileSketch} consume directly.</p>
+ */
+public class Dataset {
+    /** Binary layout: "SCDS", version, rows, columns, names; then each column's doubles, little-endian, 8-byte aligned. */
+    private static final int MAGIC = 0x53444353;
+    private static final int VERSION = 1;
+
+    /** Target bytes per CSV chunk. */
+    private static final int CHUNK_BYTES = 1 << 23;
+    /** Longest line accepted; also bounds the header. */
+    private static final int MAX_LINE = 1 << 20;
+    private static final int WRITE_BLOCK = 1 << 20;
+
+    private final String[] names;
+    private final DoubleBuffer[] columns;
+    // Heap storage of CSV and in-memory datasets; null when mapped from a binary file
+    private final double[][] arrays;
+    private final int rows;
+
+    private Dataset(String[] names, DoubleBuffer[] columns, double[][] arrays, int rows) {
+        this.names = names;
+        this.columns = columns;
+        this.arrays = arrays;
+        this.rows = rows;
+    }
+
+    /** Dataset over existing arrays of equal length; they are used as-is, not copied. */
+    public static Dataset of(String[] names, double[]... columns) {
+        if (names.length != columns.length) throw new IllegalArgumentException("Informe um nome por coluna");
+        int n = columns.length == 0 ? 0 : columns[0].length;
+        for (double[] column : columns) {
+            if (column.length != n) throw new IllegalArgumentException("Colunas de tamanhos diferentes");
+        }
+        return onHeap(names.clone(), columns, n);
+    }
+
+    private static Dataset onHeap(String[] names, double[][] arrays, int rows) {
+        DoubleBuffer[] views = new DoubleBuffer[arrays.length];
+        for (int c = 0; c < arrays.length; c++) views[c] = DoubleBuffer.wrap(arrays[c]).asReadOnlyBuffer();
+        return new Dataset(names, views, arrays, rows);
+    }
+
+    // ========== ACCESS ==========
+
+    public int rows() { return rows; }
+    public int columnCount() { return names.length; }
+    public String[] names() { return names.clone(); }
+
+    /** True when columns are read in place from a mapped binary file. */
+    public boolean isMapped() { return arrays == null; }
+
+    public int indexOf(String name) {
+        for (int c = 0; c < names.length; c++) {
+            if (names[c].equals(name)) return c;
+        }
+        throw new IllegalArgumentException("Coluna não encontrada: " + name);
+    }
+
+    /** Read-only view of a column with its own position; no data is copied. */
+    public DoubleBuffer column(int index) {
+        return columns[index].duplicate();
+    }
+
+    public DoubleBuffer column(String name) {
+        return column(indexOf(name));
+    }
+
+    /** Column as an array: the backing array itself when on the heap, a copy when mapped. */
+    public double[] array(String name) {
+        return array(indexOf(name));
+    }
+
+    public double[] array(int c) {
+        if (arrays != null) return arrays[c];
+        double[] copy = new double[rows];
+        columns[c].duplicate().get(copy);
+        return copy;
+    }
+
+    // ========== STATISTICS ==========
+
+    public StatsAccumulator stats(String name) {
+        return StatsAccumulator.of(column(name));
+    }
+
+    /** Simple regression of column y on column x. */
+    public RegressionAccumulator linearRegression(String x, String y) {
+        return RegressionAccumulator.of(column(x), column(y));
+    }
+
+    /** Multiple regression with intercept; mapped columns are copied, as {@link Regression} works on arrays. */
+    public Regression.Result multipleRegression(String[] predictors, String y) {
+        double[][] x = new double[predictors.length][];
+        for (int j = 0; j < predictors.length; j++) x[j] = array(predictors[j]);
+        return Regression.fit(x, array(y));
+    }
+
+    public QuantileSketch quantiles(String name, int k) {
+        return QuantileSketch.of(column(name), k);
+    }
+
+    // ========== CSV ==========
+
+    /** Comma-separated file with a header line. */
+    public static Dataset readCsv(Path path) throws IOException {
+        return readCsv(path, ',', true);
+    }
+
+    /**
+     * Reads a numeric CSV. Lines that are empty or hold only spaces and
+     * tabs are skipped, short rows are padded with NaN, empty fields are
+     * NaN and quotes around a field are dropped; quoted delimiters and line breaks inside fields are not supported.
+     * A space delimiter matches any run of spaces and tabs. Without a header
+     * the columns are named "Coluna 1", "Coluna 2", ... A field that is not
+     * a number fails with the file line it sits on.
+     */
+    public static Dataset readCsv(Path path, char delimiter, boolean header) throws IOException {
+        if (delimiter > 0x7F) throw new IllegalArgumentException("Separador deve ser ASCII");
+        byte sep = (byte) delimiter;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            String[] names;
+            if (header && size > 0) {
+                byte[] line = readLine(channel, 0, size);
+                names = headerNames(line, sep);
+                start = Math.min((long) line.length + 1, size);
+            } else {
+                byte[] line = size > 0 ? readLine(channel, 0, size) : new byte[0];
+                int end = trimEnd(line, 0, line.length);
+                names = new String[end == 0 ? 0 : fieldCount(line, end, sep)];
+                for (int c = 0; c < names.length; c++) names[c] = "Coluna " + (c + 1);
+            }
+            int ncols = names.length;
+
+            // Chunk boundaries, each moved forward to the start of a line
+            long length = size - start;
+            int chunks = (int) Math.max(1, (length + CHUNK_BYTES - 1) / CHUNK_BYTES);
+            long[] bounds = new long[chunks + 1];
+            bounds[0] = start;
+            bounds[chunks] = size;
+            for (int i = 1; i < chunks; i++) {
+                long pos = Math.max(start + length * i / chunks, bounds[i - 1]);
+                bounds[i] = pos >= size ? size : Math.min(pos + readLine(channel, pos, size).length + 1, size);
+            }
+            ByteBuffer[] parts = new ByteBuffer[chunks];
+            for (int i = 0; i < chunks; i++) {
+                long len = bounds[i + 1] - bounds[i];
+                if (len > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Linha longa demais");
+                parts[i] = channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], len);
+            }
+
+            // Pass 1: rows and lines per chunk, so every chunk knows where its
+            // rows go and which file line it starts on (for error messages)
+            long[] offsets = new long[chunks + 1];
+            long[] lines = new long[chunks + 1];
+            lines[0] = start > 0 ? 2 : 1;
+            ParallelRange.forEach(chunks, 1, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    byte[] bytes = bytes(parts[i]);
+                    offsets[i + 1] = countRows(bytes);
+                    lines[i + 1] = countLines(bytes);
+                }
+            });
+            for (int i = 0; i < chunks; i++) {
+                offsets[i + 1] += offsets[i];
+                lines[i + 1] += lines[i];
+            }
+            if (offsets[chunks] > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Arquivo grande demais");
+            int total = (int) offsets[chunks];
+
+            // Pass 2: parse each chunk into its slice of the columns
+            double[][] arrays = new double[ncols][total];
+            ParallelRange.forEach(chunks, 1, (from, to) -> {
+                for (int i = from; i < to; i++) parseRows(bytes(parts[i]), sep, arrays, (int) offsets[i], lines[i]);
+            });
+            return onHeap(names, arrays, total);
+        }
+    }
+
+    /** Chunk contents on the heap: one bulk copy from the page cache, then plain array scans. */
+    private static byte[] bytes(ByteBuffer part) {
+        byte[] bytes = new byte[part.limit()];
+        part.get(0, bytes);
+        return bytes;
+    }
+
+    /** The line starting at {@code pos}, line break excluded. */
+    private static byte[] readLine(FileChannel channel, long pos, long size) throws IOException {
+        byte[] window = bytes(channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(size - pos, MAX_LINE)));
+        int end = lineEnd(window, 0, window.length);
+        if (end == window.length && pos + end < size) throw new IllegalArgumentException("Linha longa demais");
+        return Arrays.copyOf(window, end);
+    }
+
+    /** Index of the next '\n' at or after {@code from}, or {@code to}. */
+    private static int lineEnd(byte[] bytes, int from, int to) {
+        int i = from;
+        while (i < to && bytes[i] != '\n') i++;
+        return i;
+    }
+
+    /** End of the line content, dropping a trailing '\r' and blanks, so a line of only blanks is empty. */
+    private static int trimEnd(byte[] bytes, int from, int end) {
+        while (end > from && (bytes[end - 1] == '\r' || isBlank(bytes[end - 1]))) end--;
+        return end;
+    }
+
+    private static int countRows(byte[] bytes) {
+        int n = bytes.length, rows = 0;
+        for (int i = 0; i < n; ) {
+            int end = lineEnd(bytes, i, n);
+            if (trimEnd(bytes, i, end) > i) rows++;
+            i = end + 1;
+        }
+        return rows;
+    }
+
+    private static int countLines(byte[] bytes) {
+        int lines = 0;
+        for (byte b : bytes) if (b == '\n') lines++;
+        return lines;
+    }
+
+    /** Parses one chunk into rows from {@code row} on; {@code line} is the file line the chunk starts on. */
+    private static void parseRows(byte[] bytes, byte sep, double[][] columns, int row, long line) {
+        int n = bytes.length;
+        int ncols = columns.length;
+        for (int i = 0; i < n; line++) {
+            int next = lineEnd(bytes, i, n);
+            int end = trimEnd(bytes, i, next);
+            if (end > i) {
+                int c = 0;
+                for (int f = fieldStart(bytes, i, end, sep); f < end || c == 0; ) {
+                    int g = fieldEnd(bytes, f, end, sep);
+                    if (c == ncols) throw new IllegalArgumentException("Linha " + line + " com colunas demais");
+                    try {
+                        columns[c++][row] = DecimalParser.parse(bytes, f, g);
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Linha " + line + ": " + e.getMessage());
+                    }
+                    if (g == end) break;
+                    f = fieldStart(bytes, g + 1, end, sep);
+                }
+                while (c < ncols) columns[c++][row] = Double.NaN;
+                row++;
+            }
+            i = next + 1;
+        }
+    }
+
+    /** Start of the field at {@code from}; with the space delimiter, blanks before it are skipped. */
+    private static int fieldStart(byte[] bytes, int from, int end, byte sep) {
+        if (sep == ' ') while (from < end && isBlank(bytes[from])) from++;
+        return from;
+    }
+
+    /** End of the field starting at {@code from}: the next delimiter, or any blank for the space delimiter. */
+    private static int fieldEnd(byte[] bytes, int from, int end, byte sep) {
+        int g = from;
+        if (sep == ' ') {
+            while (g < end && !isBlank(bytes[g])) g++;
+        } else {
+            while (g < end && bytes[g] != sep) g++;
+        }
+        return g;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static int fieldCount(byte[] line, int end, byte sep) {
+        int fields = 0;
+        for (int f = fieldStart(line, 0, end, sep); f < end || fields == 0; ) {
+            int g = fieldEnd(line, f, end, sep);
+            fields++;
+            if (g == end) break;
+            f = fieldStart(line, g + 1, end, sep);
+        }
+        return fields;
+    }
+
+    private static String[] headerNames(byte[] line, byte sep) {
+        int end = trimEnd(line, 0, line.length);
+        String text = new String(line, 0, end, StandardCharsets.UTF_8);
+        String[] fields = sep == ' ' ? text.strip().split("[ \t]+") : text.split(Pattern.quote(String.valueOf((char) sep)), -1);
+        for (int c = 0; c < fields.length; c++) {
+            String name = fields[c].strip();
+            if (c == 0 && name.startsWith("\uFEFF")) name = name.substring(1).strip();
+            if (name.length() >= 2 && name.startsWith("\"") && name.endsWith("\"")) {
+                name = name.substring(1, name.length() - 1).replace("\"\"", "\"");
+            }
+            fields[c] = name.isEmpty() ? "Coluna " + (c + 1) : name;
+        }
+        return fields;
+    }
+
+    // ========== BINARY ==========
+
+    /** Writes the columnar binary format read by {@link #openBinary}. */
+    public void writeBinary(Path path) throws IOException {
+        byte[][] encoded = new byte[names.length][];
+        int headerSize = 16;
+        for (int c = 0; c < names.length; c++) {
+            encoded[c] = names[c].getBytes(StandardCharsets.UTF_8);
+            headerSize += 4 + encoded[c].length;
+        }
+        ByteBuffer head = ByteBuffer.allocate(align8(headerSize)).order(ByteOrder.LITTLE_ENDIAN);
+        head.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(names.length);
+        for (byte[] name : encoded) head.putInt(name.length).put(name);
+        head.clear();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, head);
+            ByteBuffer block = ByteBuffer.allocateDirect(WRITE_BLOCK).order(ByteOrder.LITTLE_ENDIAN);
+            DoubleBuffer view = block.asDoubleBuffer();
+            for (DoubleBuffer column : columns) {
+                for (int pos = 0; pos < rows; ) {
+                    int n = Math.min(view.capacity(), rows - pos);
+                    view.clear();
+                    view.put(column.slice(pos, n));
+                    block.clear().limit(n * Double.BYTES);
+                    writeFully(channel, block);
+                    pos += n;
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps a file written by {@link #writeBinary}. Columns are read in place
+     * from the page cache; a column is limited to 2 GB (about 268 million rows).
+     */
+    public static Dataset openBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, Integer.MAX_VALUE))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            String[] names;
+            int rows;
+            try {
+                if (head.getInt() != MAGIC) throw new IllegalArgumentException("Arquivo de dados inválido");
+                if (head.getInt() != VERSION) throw new IllegalArgumentException("Versão de arquivo não suportada");
+                rows = head.getInt();
+                int ncols = head.getInt();
+                if (rows < 0 || ncols < 0) throw new IllegalArgumentException("Arquivo de dados inválido");
+                names = new String[ncols];
+                for (int c = 0; c < ncols; c++) {
+                    byte[] name = new byte[head.getInt()];
+                    head.get(name);
+                    names[c] = new String(name, StandardCharsets.UTF_8);
+                }
+            } catch (BufferUnderflowException | NegativeArraySizeException e) {
+                throw new IllegalArgumentException("Arquivo de dados inválido");
+            }
+            long dataOffset = align8(head.position());
+            long columnBytes = (long) rows * Double.BYTES;
+            if (columnBytes > Integer.MAX_VALUE) throw new IllegalArgumentException("Coluna grande demais para mapear");
+            if (dataOffset + columnBytes * names.length > size) throw new IllegalArgumentException("Arquivo de dados truncado");
+
+            DoubleBuffer[] columns = new DoubleBuffer[names.length];
+            for (int c = 0; c < names.length; c++) {
+                columns[c] = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset + c * columnBytes, columnBytes)
+                        .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+            }
+            return new Dataset(names, columns, null, rows);
+        }
+    }
+
+    private static int align8(int n) {
+        return (n + 7) & ~7;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+}
@@ -0,0 +1,115 @@
+package com.vibecoding.calculator.engine;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Irregularly dated cash flows for XNPV/XIRR. Flows are sorted by date
+ * and their year fractions from the first date are computed once under a
+ * {@link DayCount}, so each solver iteration is plain arithmetic.
+ */
+public class DatedCashFlows {
+    private final long[] epochDays;
+    private final double[] amounts;
+    private final double[] years;
+    private final DayCount dayCount;
+
+    public DatedCashFlows(long[] epochDays, double[] amounts, DayCount dayCount) {
+        if (epochDays.length != amounts.length || amounts.length == 0) {
+            throw new IllegalArgumentException("Datas e valores devem ter o mesmo tamanho");
+        }
+        int n = amounts.length;
+        this.epochDays = epochDays.clone();
+        this.amounts = amounts.clone();
+        this.dayCount = dayCount;
+        // Insertion sort by date; registers are short and usually already sorted
+        for (int i = 1; i < n; i++) {
+            for (int j = i; j > 0 && this.epochDays[j] < this.epochDays[j - 1]; j--) {
+                long d = this.epochDays[j]; this.epochDays[j] = this.epochDays[j - 1]; this.epochDays[j - 1] = d;
+                double a = this.amounts[j]; this.amounts[j] = this.amounts[j - 1]; this.amounts[j - 1] = a;
+            }
+        }
+        this.years = new double[n];
+        for (int i = 0; i < n; i++) years[i] = dayCount.yearFraction(this.epochDays[0], this.epochDays[i]);
+    }
+
+    public DatedCashFlows(LocalDate[] dates, double[] amounts, DayCount dayCount) {
+        this(toEpochDays(dates), amounts, dayCount);
+    }
+
+    private static long[] toEpochDays(LocalDate[] dates) {
+        long[] days = new long[dates.length];
+        for (int i = 0; i < dates.length; i++) days[i] = dates[i].toEpochDay();
+        return days;
+    }
+
+    public int size() { return amounts.length; }
+    public DayCount getDayCount() { return dayCount; }
+
+    /** Year fractions from the first date, in date order. */
+    public double[] yearFractions() { return years.clone(); }
+
+    /** XNPV at an annual rate (percent), discounted to the first date. */
+    public double xnpv(double annualRate) {
+        double lnq = Math.log1p(annualRate / 100.0);
+        double sum = 0;
+        for (int i = 0; i < amounts.length; i++) sum += amounts[i] * Math.exp(-years[i] * lnq);
+        return sum;
+    }
+
+    /** XIRR in percent per year. Fails if there is no IRR or more than one (see {@link #xirrAll}). */
+    public double xirr() {
+        return xirr(FinancialEngine.IRR_TOLERANCE);
+    }
+
+    public double xirr(double tolerance) {
+        int changes = FinancialEngine.signChanges(amounts, 0, amounts.length);
+        if (changes == 0) throw new ArithmeticException("XTIR inexistente: fluxos sem troca de sinal");
+        if (changes == 1) {
+            double r = xirrUnique(tolerance / 100.0);
+            if (Double.isNaN(r)) throw new ArithmeticException("XTIR não encontrada");
+            return r * 100;
+        }
+        double[] all = xirrAll(tolerance);
+        if (all.length == 0) throw new ArithmeticException("XTIR inexistente");
+        if (all.length > 1) throw new ArithmeticException("Múltiplas XTIR (" + all.length + "), use xirrAll");
+        return all[0];
+    }
+
+    /** All XIRRs in (-99.9%, 1000%] where XNPV changes sign, ascending, in percent. */
+    public double[] xirrAll(double tolerance) {
+        double[] roots = new double[FinancialEngine.signChanges(amounts, 0, amounts.length)];
+        int found = SafeNewton.scanRoots(this::xnpvAndDerivative, SafeNewton.U_MIN, SafeNewton.U_MAX,
+                SafeNewton.SCAN_STEPS, tolerance / 100.0, roots, new double[2]);
+        double[] result = Arrays.copyOf(roots, found);
+        for (int k = 0; k < found; k++) result[k] *= 100;
+        return result;
+    }
+
+    private double xirrUnique(double tol) {
+        // Same value-weighted guess as the periodic IRR, with time in years
+        double sumPos = 0, sumNeg = 0, tPos = 0, tNeg = 0;
+        for (int i = 0; i < amounts.length; i++) {
+            double c = amounts[i];
+            if (c > 0) { sumPos += c; tPos += c * years[i]; }
+            else { sumNeg -= c; tNeg -= c * years[i]; }
+        }
+        double span = tPos / sumPos - tNeg / sumNeg;
+        double guess = span == 0 ? 0.1 : Math.pow(sumPos / sumNeg, 1 / span) - 1;
+        if (!(guess > -0.99 && guess < 10)) guess = 0.1;
+        return SafeNewton.solveNear(this::xnpvAndDerivative, guess, tol, new double[2]);
+    }
+
+    /** XNPV at rate r (fraction) and its derivative, in one pass. */
+    private double xnpvAndDerivative(double r, double[] derivative) {
+        double lnq = Math.log1p(r);
+        double sum = 0, dsum = 0;
+        for (int i = 0; i < amounts.length; i++) {
+            double term = amounts[i] * Math.exp(-years[i] * lnq);
+            sum += term;
+            dsum -= years[i] * term;
+        }
+        derivative[0] = dsum / (1 + r);
+        return sum;
+    }
+}
@@ -0,0 +1,58 @@
+package com.vibecoding.calculator.engine;
+
+import java.time.LocalDate;
+
+/**
+ * Day-count conventions turning a pair of dates (epoch days) into a year
+ * fraction.
+ */
+public enum DayCount {
+    /** Actual days / 365. */
+    ACT_365 {
+        @Override
+        public double yearFraction(long start, long end) { return (end - start) / 365.0; }
+    },
+    /** Actual days / 360 (money market). */
+    ACT_360 {
+        @Override
+        public double yearFraction(long start, long end) { return (end - start) / 360.0; }
+    },
+    /** 30/360 US bond basis. */
+    THIRTY_360 {
+        @Override
+        public double yearFraction(long start, long end) {
+            LocalDate a = LocalDate.ofEpochDay(start), b = LocalDate.ofEpochDay(end);
+            int d1 = Math.min(a.getDayOfMonth(), 30);
+            int d2 = b.getDayOfMonth();
+            if (d1 == 30) d2 = Math.min(d2, 30);
+            int days = 360 * (b.getYear() - a.getYear()) + 30 * (b.getMonthValue() - a.getMonthValue()) + (d2 - d1);
+            return days / 360.0;
+        }
+    },
+    /** Business days (Monday to Friday) / 252, as in Brazilian DI conventions; holidays are not removed. */
+    BUS_252 {
+        @Override
+        public double yearFraction(long start, long end) {
+            return end >= start ? businessDays(start, end) / 252.0 : -businessDays(end, start) / 252.0;
+        }
+    };
+
+    /** Year fraction from {@code start} to {@code end}, both in epoch days. */
+    public abstract double yearFraction(long start, long end);
+
+    public double yearFraction(LocalDate start, LocalDate end) {
+        return yearFraction(start.toEpochDay(), end.toEpochDay());
+    }
+
+    /** Weekdays in [start, end). Epoch day 0 (1970-01-01) was a Thursday. */
+    static long businessDays(long start, long end) {
+        long days = end - start;
+        long count = days / 7 * 5;
+        // Day of week with Monday = 0
+        int dow = (int) Math.floorMod(start + 3, 7L);
+        for (long i = 0; i < days % 7; i++) {
+            if ((dow + i) % 7 < 5) count++;
+        }
+        return count;
+    }
+}
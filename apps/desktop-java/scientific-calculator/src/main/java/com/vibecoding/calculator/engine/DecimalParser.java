@@ -0,0 +1,172 @@
+package com.vibecoding.calculator.engine;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decimal text to double without building a String. Up to 19 significant
+ * digits are gathered into a long; small cases are exact through Clinger's
+ * fast path (integer times an exact power of ten) and the rest go through
+ * the Eisel-Lemire algorithm, which multiplies by a 128-bit power of five
+ * and gives the correctly rounded result or reports that it cannot decide.
+ * Those rare cases, longer inputs, NaN and Infinity use Double.parseDouble,
+ * so results always match it bit for bit.
+ */
+final class DecimalParser {
+    private static final int MIN_POWER = -325;
+    private static final int MAX_POWER = 308;
+
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // 5^q normalized to 128 bits (top bit set): high and low halves
+    private static final long[] POW5_HIGH = new long[MAX_POWER - MIN_POWER + 1];
+    private static final long[] POW5_LOW = new long[MAX_POWER - MIN_POWER + 1];
+
+    static {
+        BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int q = MIN_POWER; q <= MAX_POWER; q++) {
+            BigInteger c;
+            if (q >= 0) {
+                c = BigInteger.valueOf(5).pow(q);
+                int bits = c.bitLength();
+                c = bits > 128 ? c.shiftRight(bits - 128) : c.shiftLeft(128 - bits);
+            } else {
+                // Reciprocal rounded up, as in the reference tables
+                BigInteger power5 = BigInteger.valueOf(5).pow(-q);
+                int z = power5.bitLength();
+                int b = q >= -27 ? z + 127 : 2 * z + 128;
+                c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+                while (c.compareTo(two128) >= 0) c = c.shiftRight(1);
+            }
+            POW5_HIGH[q - MIN_POWER] = c.shiftRight(64).longValue();
+            POW5_LOW[q - MIN_POWER] = c.and(mask).longValue();
+        }
+    }
+
+    private DecimalParser() {}
+
+    /**
+     * Parses the ASCII number in bytes [from, to), ignoring surrounding
+     * spaces, tabs and one pair of double quotes. Empty input is NaN.
+     */
+    static double parse(byte[] bytes, int from, int to) {
+        while (from < to && isBlank(bytes[from])) from++;
+        while (to > from && isBlank(bytes[to - 1])) to--;
+        if (to - from >= 2 && bytes[from] == '"' && bytes[to - 1] == '"') {
+            from++;
+            to--;
+        }
+        if (from == to) return Double.NaN;
+
+        int i = from;
+        boolean negative = false;
+        if (bytes[i] == '-' || bytes[i] == '+') negative = bytes[i++] == '-';
+        long mantissa = 0;
+        int digits = 0, exponent = 0;
+        boolean any = false;
+        for (; i < to; i++) {
+            int d = bytes[i] - '0';
+            if (d < 0 || d > 9) break;
+            any = true;
+            if (mantissa == 0 && d == 0) continue;
+            mantissa = mantissa * 10 + d;
+            digits++;
+        }
+        if (i < to && bytes[i] == '.') {
+            for (i++; i < to; i++) {
+                int d = bytes[i] - '0';
+                if (d < 0 || d > 9) break;
+                any = true;
+                exponent--;
+                if (mantissa == 0 && d == 0) continue;
+                mantissa = mantissa * 10 + d;
+                digits++;
+            }
+        }
+        if (any && i < to && (bytes[i] | 0x20) == 'e') {
+            i++;
+            boolean negativeExp = false;
+            if (i < to && (bytes[i] == '-' || bytes[i] == '+')) negativeExp = bytes[i++] == '-';
+            int e = 0;
+            boolean expDigits = false;
+            for (; i < to; i++) {
+                int d = bytes[i] - '0';
+                if (d < 0 || d > 9) break;
+                expDigits = true;
+                if (e < 100000) e = e * 10 + d;
+            }
+            any = expDigits;
+            exponent += negativeExp ? -e : e;
+        }
+        // Beyond 19 digits the long has wrapped; only the slow path is exact
+        if (any && i == to && digits <= 19) {
+            if (mantissa == 0) return negative ? -0.0 : 0.0;
+            if (digits <= 15 && exponent >= -22 && exponent <= 22) {
+                double value = exponent >= 0 ? mantissa * POW10[exponent] : mantissa / POW10[-exponent];
+                return negative ? -value : value;
+            }
+            if (exponent >= MIN_POWER && exponent <= MAX_POWER) {
+                long bits = eiselLemire(mantissa, exponent);
+                if (bits >= 0) return Double.longBitsToDouble(negative ? bits | Long.MIN_VALUE : bits);
+            }
+        }
+        String text = new String(bytes, from, to - from, StandardCharsets.ISO_8859_1);
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido: " + text);
+        }
+    }
+
+    /**
+     * Bits of the double nearest to w * 10^q (w unsigned, nonzero), or -1
+     * when the truncated product cannot settle the rounding or the result
+     * is subnormal or out of range.
+     */
+    private static long eiselLemire(long w, int q) {
+        long exponent = (((152170L + 65536) * q) >> 16) + 1024 + 63;
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+        long factorHigh = POW5_HIGH[q - MIN_POWER];
+        long lower = w * factorHigh;
+        long upper = unsignedMultiplyHigh(w, factorHigh);
+        if ((upper & 0x1FF) == 0x1FF && Long.compareUnsigned(lower + w, lower) < 0) {
+            // Low bits are ambiguous; bring in the next 64 bits of the power
+            long factorLow = POW5_LOW[q - MIN_POWER];
+            long productLow = w * factorLow;
+            long middle = lower + unsignedMultiplyHigh(w, factorLow);
+            if (Long.compareUnsigned(middle, lower) < 0) upper++;
+            if (middle + 1 == 0 && (upper & 0x1FF) == 0x1FF && Long.compareUnsigned(productLow + w, productLow) < 0) {
+                return -1;
+            }
+            lower = middle;
+        }
+        long upperBit = upper >>> 63;
+        long mantissa = upper >>> (upperBit + 9);
+        lz += (int) (1 ^ upperBit);
+        // Exactly halfway between two doubles: leave the tie to the slow path
+        if (lower == 0 && (upper & 0x1FF) == 0 && (mantissa & 3) == 1) return -1;
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= (1L << 53)) {
+            mantissa = 1L << 52;
+            lz--;
+        }
+        mantissa &= ~(1L << 52);
+        long realExponent = exponent - lz;
+        if (realExponent < 1 || realExponent > 2046) return -1;
+        return mantissa | realExponent << 52;
+    }
+
+    private static long unsignedMultiplyHigh(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
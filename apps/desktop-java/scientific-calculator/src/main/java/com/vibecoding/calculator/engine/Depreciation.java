@@ -0,0 +1,170 @@
+package com.vibecoding.calculator.engine;
+
+import java.util.Arrays;
+
+/**
+ * Full depreciation schedule of one asset in a single forward pass:
+ * straight line, declining balance, double declining with a switch to
+ * straight line, sum of the years' digits and units of production. Years
+ * go out through a {@link Visitor} or column buffers, and a whole fixed
+ * asset register is scheduled in parallel without a row object per year.
+ */
+public class Depreciation {
+    /**
+     * DB stops at salvage but need not reach it; DDB_SL switches to
+     * straight line over the remaining years once that charges more, so it
+     * ends exactly at salvage. UNITS needs {@link #setUnits}.
+     */
+    public enum Method { SL, DB, DDB_SL, SYD, UNITS }
+
+    /** Receives one year of the schedule: the charge and the book value after it. */
+    @FunctionalInterface
+    public interface Visitor {
+        void year(int year, double depreciation, double bookValue);
+    }
+
+
+    private final Method method;
+    private final double cost;
+    private final double salvage;
+    private final int life;
+    private double factor = 2;
+    private double totalUnits;
+    private double[] unitsPerYear;
+
+    public Depreciation(Method method, double cost, double salvage, int life) {
+        if (life <= 0) throw new IllegalArgumentException("Vida útil inválida");
+        this.method = method;
+        this.cost = cost;
+        this.salvage = salvage;
+        this.life = life;
+    }
+
+    /** Declining-balance factor for DB and DDB_SL (default 2, double declining). */
+    public Depreciation setFactor(double factor) {
+        if (!(factor > 0)) throw new IllegalArgumentException("Fator inválido");
+        this.factor = factor;
+        return this;
+    }
+
+    /** Expected lifetime units and units produced each year (one entry per year of life). */
+    public Depreciation setUnits(double totalUnits, double[] unitsPerYear) {
+        if (!(totalUnits > 0)) throw new IllegalArgumentException("Total de unidades inválido");
+        if (unitsPerYear.length != life) throw new IllegalArgumentException("Informe as unidades de cada ano da vida útil");
+        this.totalUnits = totalUnits;
+        this.unitsPerYear = unitsPerYear.clone();
+        return this;
+    }
+
+    public Method getMethod() { return method; }
+    public double getCost() { return cost; }
+    public int getLife() { return life; }
+
+    /** Streams the schedule, year 1 first. Returns the number of years (the life). */
+    public int schedule(Visitor visitor) {
+        if (method == Method.UNITS && unitsPerYear == null) throw new IllegalStateException("Unidades não informadas");
+        double depreciable = cost - salvage;
+        double rate = factor / life;
+        double sumYears = life * (life + 1.0) / 2;
+        double book = cost;
+        boolean straight = false;
+        for (int y = 1; y <= life; y++) {
+            double dep;
+            switch (method) {
+                case SL:
+                    dep = depreciable / life;
+                    break;
+                case SYD:
+                    dep = depreciable * (life - y + 1) / sumYears;
+                    break;
+                case DB:
+                    dep = book * rate;
+                    break;
+                case DDB_SL: {
+                    double remainingSl = (book - salvage) / (life - y + 1);
+                    if (!straight && remainingSl >= book * rate) straight = true;
+                    dep = straight ? remainingSl : book * rate;
+                    break;
+                }
+                default:
+                    dep = depreciable * unitsPerYear[y - 1] / totalUnits;
+            }
+            // The final year of the even-spread methods absorbs rounding
+            boolean last = y == life && method != Method.DB && method != Method.UNITS;
+            if (last || book - dep < salvage) dep = Math.max(book - salvage, 0);
+            book -= dep;
+            visitor.year(y, dep, book);
+        }
+        return life;
+    }
+
+    /**
+     * Writes the schedule column by column: year y goes to index
+     * {@code offset + y - 1}. Null columns are skipped.
+     */
+    public int schedule(double[] depreciation, double[] bookValues, int offset) {
+        return schedule((y, dep, book) -> {
+            int k = offset + y - 1;
+            if (depreciation != null) depreciation[k] = dep;
+            if (bookValues != null) bookValues[k] = book;
+        });
+    }
+
+    // ========== REGISTER ==========
+
+    /** Row offsets for {@link #scheduleAll}: asset s gets rows [offsets[s], offsets[s] + life). */
+    public static int[] rowOffsets(Depreciation[] assets) {
+        int[] offsets = new int[assets.length + 1];
+        for (int s = 0; s < assets.length; s++) {
+            offsets[s + 1] = Math.addExact(offsets[s], assets[s].life);
+        }
+        return offsets;
+    }
+
+    /** Schedules every asset in parallel into shared column buffers laid out by {@link #rowOffsets}. */
+    public static void scheduleAll(Depreciation[] assets, int[] offsets, double[] depreciation, double[] bookValues) {
+        int grain = ParallelRange.grain(assets.length, s -> assets[s].life);
+        ParallelRange.forEach(assets.length, grain, (from, to) -> {
+            for (int s = from; s < to; s++) assets[s].schedule(depreciation, bookValues, offsets[s]);
+        });
+    }
+
+    /**
+     * Year-end totals for the whole register: index y - 1 receives the
+     * depreciation charged in year y and the book value at its end, summed
+     * over all assets. Fully depreciated assets keep their final book value.
+     * Arrays must cover the longest life; they are overwritten.
+     */
+    public static void yearTotals(Depreciation[] assets, double[] depreciationByYear, double[] bookValueByYear) {
+        int maxLife = 0;
+        for (Depreciation asset : assets) maxLife = Math.max(maxLife, asset.life);
+        if (depreciationByYear.length < maxLife || bookValueByYear.length < maxLife) {
+            throw new IllegalArgumentException("Saída pequena demais");
+        }
+        Arrays.fill(depreciationByYear, 0);
+        Arrays.fill(bookValueByYear, 0);
+        int years = maxLife;
+        // Charges in [0, years), book values in [years, 2 years)
+        double[] sums = new double[2 * years];
+        int grain = ParallelRange.grain(assets.length, s -> assets[s].life);
+        ParallelRange.sumInOrder(assets.length, grain, 2 * years, (from, to, partial) -> {
+            // Final book values carried past each life, added as a running sum
+            double[] carry = new double[years + 1];
+            for (int s = from; s < to; s++) {
+                Depreciation asset = assets[s];
+                asset.schedule((y, dep, value) -> {
+                    partial[y - 1] += dep;
+                    partial[years + y - 1] += value;
+                    if (y == asset.life) carry[y] += value;
+                });
+            }
+            double carried = 0;
+            for (int k = 0; k < years; k++) {
+                carried += carry[k];
+                partial[years + k] += carried;
+            }
+        }, sums);
+        System.arraycopy(sums, 0, depreciationByYear, 0, years);
+        System.arraycopy(sums, years, bookValueByYear, 0, years);
+    }
+}
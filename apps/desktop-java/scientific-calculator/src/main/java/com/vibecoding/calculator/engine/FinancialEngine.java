@@ -1,6 +1,10 @@
 package com.vibecoding.calculator.engine;
 
+import java.math.RoundingMode;
+import java.nio.DoubleBuffer;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -63,63 +67,322 @@ public class FinancialEngine {
         return Math.log(num / den) / Math.log(1 + i);
     }
 
+    /** Interest rate found by {@link #solveInterestRate}, with how the solve went. */
+    public static class RateSolution {
+        /** Percent per period. */
+        public final double rate;
+        public final int iterations;
+        /** |PV + PMT a(i) + FV v^n| at the rate, in money units. */
+        public final double residual;
+
+        public RateSolution(double rate, int iterations, double residual) {
+            this.rate = rate;
+            this.iterations = iterations;
+            this.residual = residual;
+        }
+    }
+
     /**
-     * Calculate interest rate using Newton-Raphson iteration.
+     * Calculate interest rate (percent per period). Fails if the TVM values
+     * admit no rate or the solver does not converge.
      */
     public double interestRate(double n, double pv, double pmt, double fv, boolean beginMode) {
-        double guess = 0.1;
-        for (int iter = 0; iter < 1000; iter++) {
-            double i = guess;
-            double t = beginMode ? 1 : 0;
-            double factor = Math.pow(1 + i, n);
-            double f = pv * factor + pmt * ((factor - 1) / i) * (1 + i * t) + fv;
-
-            // Derivative
-            double dfactor = n * Math.pow(1 + i, n - 1);
-            double dAnnuity = (dfactor * i - (factor - 1)) / (i * i);
-            double df = pv * dfactor + pmt * (dAnnuity * (1 + i * t) + ((factor - 1) / i) * t);
-
-            if (Math.abs(df) < 1e-20) break;
-            double next = i - f / df;
-            if (Math.abs(next - i) < 1e-12) return next * 100;
-            guess = next;
+        return solveInterestRate(n, pv, pmt, fv, beginMode).rate;
+    }
+
+    /**
+     * Interest rate by safeguarded Newton on the present-value form of the
+     * TVM equation, starting from its linearisation at i = 0 and kept
+     * inside a sign-changing bracket.
+     */
+    public RateSolution solveInterestRate(double n, double pv, double pmt, double fv, boolean beginMode) {
+        if (n <= 0) throw new ArithmeticException("N deve ser positivo");
+        TvmRate f = new TvmRate();
+        f.set(n, pv, pmt, fv, beginMode);
+        double[] work = new double[2];
+        double i = f.solve(work);
+        if (work[1] < 0) throw new ArithmeticException("Cálculo da taxa não convergiu");
+        if (Double.isNaN(i)) throw new ArithmeticException("Taxa inexistente: valores TVM inconsistentes");
+        int iterations = (int) work[1];
+        return new RateSolution(i * 100, iterations, Math.abs(f.apply(i, work)));
+    }
+
+    /**
+     * Solves I for every row of a loan tape in parallel; {@code out[k]} gets
+     * the rate in percent, or NaN where there is none. Each worker reuses
+     * one equation object and one scratch buffer.
+     */
+    public void interestRates(double[] n, double[] pv, double[] pmt, double[] fv, boolean beginMode, double[] out) {
+        int rows = out.length;
+        if (n.length < rows || pv.length < rows || pmt.length < rows || fv.length < rows) {
+            throw new IllegalArgumentException("Colunas com tamanhos diferentes");
         }
-        return guess * 100;
+        ParallelRange.forEach(rows, 4096, (from, to) -> {
+            TvmRate f = new TvmRate();
+            double[] work = new double[2];
+            for (int k = from; k < to; k++) {
+                if (!(n[k] > 0)) {
+                    out[k] = Double.NaN;
+                    continue;
+                }
+                f.set(n[k], pv[k], pmt[k], fv[k], beginMode);
+                out[k] = f.solve(work) * 100;
+            }
+        });
+    }
+
+    /**
+     * g(i) = PV + PMT (1 + i t) a(i) + FV v^n with v = 1 / (1 + i) and
+     * a(i) = (1 - v^n) / i, evaluated through expm1/log1p so it stays
+     * accurate near i = 0 and bounded for large i.
+     */
+    private static final class TvmRate implements SafeNewton.Function {
+        private double n, pv, pmt, fv, t;
+
+        void set(double n, double pv, double pmt, double fv, boolean beginMode) {
+            this.n = n;
+            this.pv = pv;
+            this.pmt = pmt;
+            this.fv = fv;
+            this.t = beginMode ? 1 : 0;
+        }
+
+        @Override
+        public double apply(double i, double[] derivative) {
+            double a, da, vn;
+            if (Math.abs(n * i) < 1e-4) {
+                // Series around i = 0, where (1 - v^n) / i cancels
+                a = n - n * (n + 1) / 2 * i + n * (n + 1) * (n + 2) / 6 * i * i;
+                da = -n * (n + 1) / 2 + n * (n + 1) * (n + 2) / 3 * i;
+                vn = 1 - i * a;
+            } else {
+                double nl = -n * Math.log1p(i);
+                vn = Math.exp(nl);
+                a = -Math.expm1(nl) / i;
+                da = (n * vn / (1 + i) - a) / i;
+            }
+            derivative[0] = pmt * (t * a + (1 + i * t) * da) - fv * n * vn / (1 + i);
+            return pv + pmt * (1 + i * t) * a + fv * vn;
+        }
+
+        /** Rate as a fraction, or NaN; see {@link SafeNewton#solveNear} for work[1]. */
+        double solve(double[] work) {
+            double guess;
+            if (pmt == 0 && pv != 0 && -fv / pv > 0) {
+                guess = Math.pow(-fv / pv, 1 / n) - 1;
+            } else {
+                // One Newton step from i = 0
+                double g0 = pv + pmt * n + fv;
+                double d0 = pmt * (t * n - n * (n + 1) / 2) - fv * n;
+                guess = d0 == 0 ? 0.01 : -g0 / d0;
+            }
+            if (!(guess > -0.99 && guess < 10)) guess = 0.01;
+
+            return SafeNewton.solveNear(this, guess, 1e-12, work);
+        }
+    }
+
+    /**
+     * Present value discounting each flow on a yield curve instead of a
+     * flat rate; payments are 1 / periodsPerYear years apart.
+     */
+    public double presentValue(double n, YieldCurve curve, double pmt, double fv, boolean beginMode, int periodsPerYear) {
+        int periods = wholePeriods(n);
+        return -(fv * curve.discount(n / periodsPerYear) + pmt * curve.annuityFactor(periods, periodsPerYear, beginMode));
+    }
+
+    /** Future value on a yield curve; see {@link #presentValue(double, YieldCurve, double, double, boolean, int)}. */
+    public double futureValue(double n, YieldCurve curve, double pv, double pmt, boolean beginMode, int periodsPerYear) {
+        int periods = wholePeriods(n);
+        return -(pv + pmt * curve.annuityFactor(periods, periodsPerYear, beginMode)) / curve.discount(n / periodsPerYear);
+    }
+
+    /** Payment on a yield curve; see {@link #presentValue(double, YieldCurve, double, double, boolean, int)}. */
+    public double payment(double n, YieldCurve curve, double pv, double fv, boolean beginMode, int periodsPerYear) {
+        int periods = wholePeriods(n);
+        if (periods == 0) throw new ArithmeticException("Número de períodos inválido");
+        return -(pv + fv * curve.discount(n / periodsPerYear)) / curve.annuityFactor(periods, periodsPerYear, beginMode);
+    }
+
+    private static int wholePeriods(double n) {
+        if (n < 0 || n != Math.rint(n)) throw new ArithmeticException("N deve ser inteiro com curva de juros");
+        return (int) n;
     }
 
     // ========== NPV / IRR ==========
 
+    /** Default IRR tolerance, in percentage points. */
+    public static final double IRR_TOLERANCE = 1e-10;
+
     /**
      * Net Present Value given a rate and cash flows.
      */
     public double npv(double rate, double[] cashFlows) {
-        double r = rate / 100.0;
-        double npv = 0;
-        for (int t = 0; t < cashFlows.length; t++) {
-            npv += cashFlows[t] / Math.pow(1 + r, t);
-        }
-        return npv;
+        return npvHorner(rate / 100.0, cashFlows, 0, cashFlows.length);
+    }
+
+    /** NPV on a yield curve, flow k falling k / periodsPerYear years from now. */
+    public double npv(YieldCurve curve, double[] cashFlows, int periodsPerYear) {
+        double sum = 0;
+        for (int k = 0; k < cashFlows.length; k++) sum += cashFlows[k] * curve.discount((double) k / periodsPerYear);
+        return sum;
     }
 
     /**
-     * Internal Rate of Return using bisection method.
+     * Internal Rate of Return. Fails if the cash flows have no IRR or more
+     * than one (see {@link #irrAll}).
      */
     public double irr(double[] cashFlows) {
-        double lo = -0.999, hi = 10.0;
-        for (int iter = 0; iter < 1000; iter++) {
-            double mid = (lo + hi) / 2;
-            double val = 0;
-            for (int t = 0; t < cashFlows.length; t++) {
-                val += cashFlows[t] / Math.pow(1 + mid, t);
-            }
-            if (Math.abs(val) < 1e-10) return mid * 100;
-            double loVal = 0;
-            for (int t = 0; t < cashFlows.length; t++) {
-                loVal += cashFlows[t] / Math.pow(1 + lo, t);
+        return irr(cashFlows, IRR_TOLERANCE);
+    }
+
+    /**
+     * Internal Rate of Return, stopping once the rate moves less than
+     * {@code tolerance} percentage points.
+     */
+    public double irr(double[] cashFlows, double tolerance) {
+        int changes = signChanges(cashFlows, 0, cashFlows.length);
+        if (changes == 0) throw new ArithmeticException("TIR inexistente: fluxos sem troca de sinal");
+        if (changes == 1) {
+            // Descartes: exactly one root with 1 + r > 0
+            double r = irrUnique(new Horner().set(cashFlows, 0, cashFlows.length), tolerance / 100.0);
+            if (Double.isNaN(r)) throw new ArithmeticException("TIR não encontrada");
+            return r * 100;
+        }
+        double[] all = irrAll(cashFlows, tolerance);
+        if (all.length == 0) throw new ArithmeticException("TIR inexistente");
+        if (all.length > 1) throw new ArithmeticException("Múltiplas TIR (" + all.length + "), use irrAll");
+        return all[0];
+    }
+
+    /**
+     * All IRRs in (-99.9%, 1000%] where NPV changes sign, ascending.
+     * Cash flows with several sign changes may have several IRRs or none;
+     * Descartes' rule bounds the count by the number of sign changes.
+     */
+    public double[] irrAll(double[] cashFlows, double tolerance) {
+        int maxRoots = signChanges(cashFlows, 0, cashFlows.length);
+        double[] roots = new double[maxRoots];
+        int found = scanIrr(new Horner().set(cashFlows, 0, cashFlows.length), tolerance / 100.0, roots);
+        double[] result = Arrays.copyOf(roots, found);
+        for (int k = 0; k < found; k++) result[k] *= 100;
+        return result;
+    }
+
+    /** NPV of a grouped cash-flow register; see {@link CashFlowRegister#npv}. */
+    public double npv(double rate, CashFlowRegister cashFlows) {
+        return cashFlows.npv(rate);
+    }
+
+    /** IRR of a grouped cash-flow register; see {@link CashFlowRegister#irr()}. */
+    public double irr(CashFlowRegister cashFlows) {
+        return cashFlows.irr();
+    }
+
+    /** All IRRs of a grouped cash-flow register; see {@link CashFlowRegister#irrAll}. */
+    public double[] irrAll(CashFlowRegister cashFlows, double tolerance) {
+        return cashFlows.irrAll(tolerance);
+    }
+
+    /**
+     * XNPV of dated cash flows at an annual rate (percent), discounted to
+     * the earliest date.
+     */
+    public double xnpv(double annualRate, LocalDate[] dates, double[] cashFlows, DayCount dayCount) {
+        return new DatedCashFlows(dates, cashFlows, dayCount).xnpv(annualRate);
+    }
+
+    /** Annual IRR (percent) of dated cash flows; see {@link DatedCashFlows#xirr()}. */
+    public double xirr(LocalDate[] dates, double[] cashFlows, DayCount dayCount) {
+        return new DatedCashFlows(dates, cashFlows, dayCount).xirr();
+    }
+
+    /**
+     * IRR (fraction) of cf[from, to) if it is unique, else NaN. Reuses the
+     * solver {@code f} and its scratch, so batches allocate once per worker.
+     */
+    static double irrIfUnique(double[] cf, int from, int to, double tol, Horner f) {
+        f.set(cf, from, to);
+        int changes = signChanges(cf, from, to);
+        if (changes == 0) return Double.NaN;
+        if (changes == 1) return irrUnique(f, tol);
+        return scanIrr(f, tol, f.roots) == 1 ? f.roots[0] : Double.NaN;
+    }
+
+    /** Every IRR (fraction) over (-99.9%, 1000%], up to roots.length of them; see {@link SafeNewton#scanRoots}. */
+    static int scanIrr(Horner f, double tol, double[] roots) {
+        return SafeNewton.scanRoots(f, SafeNewton.U_MIN, SafeNewton.U_MAX, SafeNewton.SCAN_STEPS, tol, roots, f.work);
+    }
+
+    /** NPV at periodic rate r (fraction) over cf[from, to), by Horner's scheme in v = 1/(1+r). */
+    static double npvHorner(double r, double[] cf, int from, int to) {
+        double v = 1 / (1 + r);
+        double p = 0;
+        for (int t = to - 1; t >= from; t--) p = p * v + cf[t];
+        return p;
+    }
+
+    /**
+     * NPV(r) of cf[from, to) with dNPV/dr from the same Horner pass, as a
+     * {@link SafeNewton.Function}. Carries its own scratch and can be
+     * pointed at another series with {@link #set}.
+     */
+    static final class Horner implements SafeNewton.Function {
+        final double[] work = new double[2];
+        final double[] roots = new double[2];
+        private double[] cf;
+        private int from, to;
+
+        Horner set(double[] cf, int from, int to) {
+            this.cf = cf;
+            this.from = from;
+            this.to = to;
+            return this;
+        }
+
+        @Override
+        public double apply(double r, double[] derivative) {
+            double v = 1 / (1 + r);
+            double p = 0, dp = 0;
+            for (int t = to - 1; t >= from; t--) {
+                dp = dp * v + p;
+                p = p * v + cf[t];
             }
-            if ((val > 0) == (loVal > 0)) lo = mid; else hi = mid;
+            derivative[0] = -dp * v * v;
+            return p;
         }
-        return ((lo + hi) / 2) * 100;
+    }
+
+    /** Sign changes in cf[from, to), ignoring zeros. */
+    static int signChanges(double[] cf, int from, int to) {
+        int changes = 0;
+        double last = 0;
+        for (int t = from; t < to; t++) {
+            if (cf[t] == 0) continue;
+            if (last != 0 && (cf[t] < 0) != (last < 0)) changes++;
+            last = cf[t];
+        }
+        return changes;
+    }
+
+    /**
+     * IRR (fraction) of the series {@code f} points at when it has exactly
+     * one sign change, or NaN if no bracket is found or Newton does not
+     * converge.
+     */
+    static double irrUnique(Horner f, double tol) {
+        // Initial guess: (1+g)^(tPos - tNeg) = sumPos / sumNeg, using the
+        // value-weighted mean times of inflows and outflows
+        double sumPos = 0, sumNeg = 0, tPos = 0, tNeg = 0;
+        for (int t = f.from; t < f.to; t++) {
+            double c = f.cf[t];
+            if (c > 0) { sumPos += c; tPos += c * (t - f.from); }
+            else { sumNeg -= c; tNeg -= c * (t - f.from); }
+        }
+        double span = tPos / sumPos - tNeg / sumNeg;
+        double guess = span == 0 ? 0.1 : Math.pow(sumPos / sumNeg, 1 / span) - 1;
+        if (!(guess > -0.99 && guess < 10)) guess = 0.1;
+        return SafeNewton.solveNear(f, guess, tol, f.work);
     }
 
     // ========== AMORTIZATION ==========
@@ -140,28 +403,171 @@ public class FinancialEngine {
         }
     }
 
+    /** Receives amortization rows one at a time, without a row object per period. */
+    @FunctionalInterface
+    public interface AmortVisitor {
+        void row(int period, double payment, double interest, double principal, double balance);
+    }
+
     /**
      * Generate amortization schedule (Price/French system).
      */
     public List<AmortRow> amortizationSchedule(double principal, double annualRate, int totalPeriods) {
+        List<AmortRow> schedule = new ArrayList<>(Math.max(totalPeriods, 0));
+        amortizationSchedule(principal, annualRate, totalPeriods,
+                (p, pmt, interest, principalPart, balance) ->
+                        schedule.add(new AmortRow(p, pmt, interest, principalPart, balance)));
+        return schedule;
+    }
+
+    /** Streams the Price schedule to {@code visitor}, period 1 first. */
+    public void amortizationSchedule(double principal, double annualRate, int totalPeriods, AmortVisitor visitor) {
         double i = annualRate / 100.0;
-        double pmt;
-        if (i == 0) {
-            pmt = principal / totalPeriods;
-        } else {
-            pmt = principal * (i * Math.pow(1 + i, totalPeriods)) / (Math.pow(1 + i, totalPeriods) - 1);
+        double pmt = pricePayment(principal, i, totalPeriods);
+        double balance = principal;
+        for (int p = 1; p <= totalPeriods; p++) {
+            double interestPart = balance * i;
+            double principalPart = pmt - interestPart;
+            balance -= principalPart;
+            if (Math.abs(balance) < 0.01) balance = 0;
+            visitor.row(p, pmt, interestPart, principalPart, balance);
         }
+    }
 
-        List<AmortRow> schedule = new ArrayList<>();
+    /**
+     * Writes the Price schedule column by column: period p goes to index
+     * {@code offset + p - 1} of each array. Any column may be null if it
+     * is not needed. Returns the number of rows written.
+     */
+    public int amortizationSchedule(double principal, double annualRate, int totalPeriods,
+                                    double[] payments, double[] interests, double[] principals,
+                                    double[] balances, int offset) {
+        double i = annualRate / 100.0;
+        double pmt = pricePayment(principal, i, totalPeriods);
         double balance = principal;
-        for (int p = 1; p <= totalPeriods; p++) {
+        for (int p = 0; p < totalPeriods; p++) {
             double interestPart = balance * i;
             double principalPart = pmt - interestPart;
             balance -= principalPart;
             if (Math.abs(balance) < 0.01) balance = 0;
-            schedule.add(new AmortRow(p, pmt, interestPart, principalPart, balance));
+            int k = offset + p;
+            if (payments != null) payments[k] = pmt;
+            if (interests != null) interests[k] = interestPart;
+            if (principals != null) principals[k] = principalPart;
+            if (balances != null) balances[k] = balance;
         }
-        return schedule;
+        return Math.max(totalPeriods, 0);
+    }
+
+    /**
+     * Level payment of a Price loan; in BEGIN mode the first payment is
+     * due at once, so each payment is smaller by a factor (1 + i).
+     */
+    public double amortPayment(double principal, double annualRate, int totalPeriods, boolean beginMode) {
+        if (totalPeriods <= 0) throw new ArithmeticException("Número de períodos inválido");
+        double i = annualRate / 100.0;
+        double pmt = pricePayment(principal, i, totalPeriods);
+        return beginMode ? pmt / (1 + i) : pmt;
+    }
+
+    /**
+     * Balance right after payment k (0 = loan start), in O(1):
+     * B_k = P (q^n - q^k) / (q^n - 1) with q = 1 + i, divided by q in
+     * BEGIN mode. Uses expm1/log1p so small rates keep full precision.
+     */
+    public double amortBalance(double principal, double annualRate, int totalPeriods, int k, boolean beginMode) {
+        if (totalPeriods <= 0 || k < 0 || k > totalPeriods) throw new ArithmeticException("Períodos inválidos");
+        if (k == 0) return principal;
+        double i = annualRate / 100.0;
+        if (i == 0) return principal * (totalPeriods - k) / totalPeriods;
+        double lnq = Math.log1p(i);
+        double b = principal * Math.exp(k * lnq) * Math.expm1((totalPeriods - k) * lnq) / Math.expm1(totalPeriods * lnq);
+        return beginMode ? b / (1 + i) : b;
+    }
+
+    /** Principal repaid by payments a..b inclusive (1-based), like AMORT on the HP 12C. */
+    public double amortPrincipal(double principal, double annualRate, int totalPeriods, int a, int b, boolean beginMode) {
+        checkAmortRange(totalPeriods, a, b);
+        return amortBalance(principal, annualRate, totalPeriods, a - 1, beginMode)
+                - amortBalance(principal, annualRate, totalPeriods, b, beginMode);
+    }
+
+    /** Interest paid by payments a..b inclusive (1-based). */
+    public double amortInterest(double principal, double annualRate, int totalPeriods, int a, int b, boolean beginMode) {
+        checkAmortRange(totalPeriods, a, b);
+        return (b - a + 1) * amortPayment(principal, annualRate, totalPeriods, beginMode)
+                - amortPrincipal(principal, annualRate, totalPeriods, a, b, beginMode);
+    }
+
+    /**
+     * Number of payments of {@code payment} needed to repay {@code principal},
+     * the last one possibly smaller. Fails if the payment does not cover
+     * the interest.
+     */
+    public int amortPayoffPeriod(double principal, double annualRate, double payment, boolean beginMode) {
+        if (payment <= 0) throw new ArithmeticException("Pagamento inválido");
+        double i = annualRate / 100.0;
+        double n;
+        if (i == 0) {
+            n = principal / payment;
+        } else {
+            // Solve P = pmt (1 - q^-n) / i (arrears); BEGIN discounts one period less
+            double x = principal * i / (beginMode ? payment * (1 + i) : payment);
+            if (x >= 1) throw new ArithmeticException("Pagamento não cobre os juros");
+            n = -Math.log1p(-x) / Math.log1p(i);
+        }
+        // Absorb rounding so an exact term is not pushed to the next period
+        return (int) Math.ceil(n - 1e-9);
+    }
+
+    /** Level payment of a Price loan, rounded to the scale of {@code principal}. */
+    public Money amortPayment(Money principal, double annualRate, int totalPeriods, boolean beginMode, RoundingMode mode) {
+        return Money.of(amortPayment(principal.toDouble(), annualRate, totalPeriods, beginMode), principal.scale(), mode);
+    }
+
+    /**
+     * Price schedule in exact minor units of {@code principal}. The payment
+     * is rounded once, each period's interest is rounded with {@code mode},
+     * and the last payment absorbs the accumulated rounding so the balance
+     * ends at exactly zero. Columns are as in the double overload and may
+     * be null. Returns the number of rows written.
+     */
+    public int amortizationSchedule(Money principal, double annualRate, int totalPeriods, RoundingMode mode,
+                                    long[] payments, long[] interests, long[] principals,
+                                    long[] balances, int offset) {
+        if (totalPeriods <= 0) throw new ArithmeticException("Número de períodos inválido");
+        long pmt = amortPayment(principal, annualRate, totalPeriods, false, mode).units();
+        Money.Factor rate = Money.Factor.of(annualRate).over(100);
+        long balance = principal.units();
+        for (int p = 1; p <= totalPeriods; p++) {
+            long interestPart = rate.apply(balance, mode);
+            long payment = pmt;
+            long principalPart;
+            try {
+                principalPart = p == totalPeriods ? balance : Math.subtractExact(pmt, interestPart);
+                if (p == totalPeriods) payment = Math.addExact(interestPart, balance);
+                balance = Math.subtractExact(balance, principalPart);
+            } catch (ArithmeticException e) {
+                throw new ArithmeticException("Valor monetário fora do intervalo");
+            }
+            int k = offset + p - 1;
+            if (payments != null) payments[k] = payment;
+            if (interests != null) interests[k] = interestPart;
+            if (principals != null) principals[k] = principalPart;
+            if (balances != null) balances[k] = balance;
+        }
+        return totalPeriods;
+    }
+
+    private static void checkAmortRange(int totalPeriods, int a, int b) {
+        if (a < 1 || b < a || b > totalPeriods) throw new ArithmeticException("Períodos inválidos");
+    }
+
+    /** Level payment per period at rate i (fraction) over n periods, paid in arrears. */
+    static double pricePayment(double principal, double i, int n) {
+        if (i == 0) return principal / n;
+        // P i / (1 - q^-n), with expm1 so tiny rates do not cancel
+        return -principal * i / Math.expm1(-n * Math.log1p(i));
     }
 
     // ========== DEPRECIATION ==========
@@ -172,15 +578,17 @@ public class FinancialEngine {
         return (cost - salvage) / life;
     }
 
-    /** Declining balance depreciation for year j. */
+    /**
+     * Declining balance depreciation for year j, in O(1): the book value
+     * falls geometrically, cost (1 - rate)^(j-1), until it hits salvage
+     * and stays there. For whole schedules see {@link Depreciation}.
+     */
     public double depreciationDB(double cost, double salvage, double life, int year, double factor) {
         if (life <= 0 || year <= 0) throw new ArithmeticException("Parâmetros inválidos");
         double rate = factor / life;
         double bookValue = cost;
-        for (int y = 1; y < year; y++) {
-            double dep = bookValue * rate;
-            bookValue -= dep;
-            if (bookValue < salvage) bookValue = salvage;
+        if (year > 1) {
+            bookValue = rate >= 1 ? salvage : Math.max(cost * Math.exp((year - 1) * Math.log1p(-rate)), salvage);
         }
         double dep = bookValue * rate;
         if (bookValue - dep < salvage) dep = bookValue - salvage;
@@ -195,6 +603,57 @@ public class FinancialEngine {
         return (cost - salvage) * remaining / sumYears;
     }
 
+    /**
+     * Straight-line depreciation for year j in exact minor units. Each year
+     * is the rounded cumulative amount minus the previous one, so the years
+     * add up to exactly cost - salvage.
+     */
+    public Money depreciationSL(Money cost, Money salvage, int life, int year, RoundingMode mode) {
+        if (life <= 0 || year <= 0) throw new ArithmeticException("Parâmetros inválidos");
+        if (year > life) return Money.zero(cost.scale());
+        long base = cost.minus(salvage).units();
+        return Money.ofMinor(Money.mulDiv(base, year, life, mode) - Money.mulDiv(base, year - 1, life, mode), cost.scale());
+    }
+
+    /**
+     * Declining balance depreciation for year j in exact minor units, in
+     * O(1) like the double overload. The book value after j years is
+     * cost (1 - rate)^j rounded once with {@code mode} and held at salvage;
+     * each year is the difference of two book values, so the years add up
+     * exactly to what the asset lost.
+     */
+    public Money depreciationDB(Money cost, Money salvage, int life, int year, double factor, RoundingMode mode) {
+        if (life <= 0 || year <= 0) throw new ArithmeticException("Parâmetros inválidos");
+        if (salvage.scale() != cost.scale()) throw new IllegalArgumentException("Escalas diferentes");
+        Money.Factor keep = factor >= life ? null : Money.Factor.of(factor).over(life).complement();
+        long before = decliningBook(cost.units(), salvage.units(), keep, year - 1, mode);
+        long after = decliningBook(cost.units(), salvage.units(), keep, year, mode);
+        return Money.ofMinor(Math.max(before - after, 0), cost.scale());
+    }
+
+    /** Book value after {@code years} of declining balance; a null {@code keep} writes the asset down in year one. */
+    private static long decliningBook(long cost, long salvage, Money.Factor keep, int years, RoundingMode mode) {
+        if (years == 0) return cost;
+        if (keep == null) return salvage;
+        return Math.max(keep.applyPower(cost, years, mode), salvage);
+    }
+
+    /**
+     * Sum-of-years'-digits depreciation for year j in exact minor units;
+     * as with {@link #depreciationSL(Money, Money, int, int, RoundingMode)}
+     * the years add up to exactly cost - salvage.
+     */
+    public Money depreciationSYD(Money cost, Money salvage, int life, int year, RoundingMode mode) {
+        if (life <= 0 || year <= 0) throw new ArithmeticException("Parâmetros inválidos");
+        if (year > life) return Money.zero(cost.scale());
+        long base = cost.minus(salvage).units();
+        // Fraction depreciated after j years: j (2L - j + 1) / (L (L + 1))
+        long den = (long) life * (life + 1);
+        long upTo = Money.mulDiv(base, (long) year * (2L * life - year + 1), den, mode);
+        long before = Money.mulDiv(base, (long) (year - 1) * (2L * life - year + 2), den, mode);
+        return Money.ofMinor(upTo - before, cost.scale());
+    }
+
     // ========== BONDS ==========
 
     /**
@@ -209,6 +668,13 @@ public class FinancialEngine {
         return pvCoupons + pvFace;
     }
 
+    /** Bond price discounting each coupon on a yield curve; coupons are 1 / periodsPerYear years apart. */
+    public double bondPrice(double faceValue, double couponRate, YieldCurve curve, int periods, int periodsPerYear) {
+        double c = faceValue * couponRate / 100.0;
+        return c * curve.annuityFactor(periods, periodsPerYear, false)
+                + faceValue * curve.discount((double) periods / periodsPerYear);
+    }
+
     // ========== PERCENTAGE CALCULATIONS ==========
 
     public double percentOf(double base, double percent) {
@@ -235,44 +701,136 @@ public class FinancialEngine {
         return ((price - cost) / price) * 100.0;
     }
 
+    public Money percentOf(Money base, double percent, RoundingMode mode) {
+        return base.percent(percent, mode);
+    }
+
+    public double percentChange(Money oldVal, Money newVal) {
+        if (oldVal.isZero()) throw new ArithmeticException("Valor base zero");
+        return newVal.minus(oldVal).ratio(oldVal.abs()) * 100.0;
+    }
+
+    public double percentTotal(Money part, Money total) {
+        if (total.isZero()) throw new ArithmeticException("Total zero");
+        return part.ratio(total) * 100.0;
+    }
+
+    public double markup(Money cost, Money price) {
+        if (cost.isZero()) throw new ArithmeticException("Custo zero");
+        return price.minus(cost).ratio(cost) * 100.0;
+    }
+
+    public double margin(Money cost, Money price) {
+        if (price.isZero()) throw new ArithmeticException("Preço zero");
+        return price.minus(cost).ratio(price) * 100.0;
+    }
+
     // ========== STATISTICS ==========
 
     public double mean(double[] values) {
         if (values.length == 0) throw new ArithmeticException("Sem dados");
-        double sum = 0;
-        for (double v : values) sum += v;
-        return sum / values.length;
+        return StatsAccumulator.of(values).mean();
     }
 
+    /** Sample standard deviation in one pass; see {@link StatsAccumulator}. */
     public double stdDev(double[] values) {
         if (values.length < 2) throw new ArithmeticException("Dados insuficientes");
-        double m = mean(values);
-        double sum = 0;
-        for (double v : values) sum += (v - m) * (v - m);
-        return Math.sqrt(sum / (values.length - 1));
+        return StatsAccumulator.of(values).stdDev();
+    }
+
+    /** Mean of a column view, e.g. {@link Dataset#column}, without copying it. */
+    public double mean(DoubleBuffer values) {
+        if (!values.hasRemaining()) throw new ArithmeticException("Sem dados");
+        return StatsAccumulator.of(values).mean();
+    }
+
+    public double stdDev(DoubleBuffer values) {
+        if (values.remaining() < 2) throw new ArithmeticException("Dados insuficientes");
+        return StatsAccumulator.of(values).stdDev();
     }
 
+    /**
+     * Exact percentile p in [0, 100], interpolating between order
+     * statistics. Uses selection on a copy, O(n), instead of a full sort;
+     * for inputs too large to hold see {@link QuantileSketch}.
+     */
+    public double percentile(double[] values, double p) {
+        if (values.length == 0) throw new ArithmeticException("Sem dados");
+        if (p < 0 || p > 100) throw new IllegalArgumentException("Percentil deve estar entre 0 e 100");
+        double[] a = values.clone();
+        int n = a.length;
+        double pos = p / 100.0 * (n - 1);
+        int k = (int) pos;
+        double lower = select(a, k);
+        if (k + 1 >= n || pos == k) return lower;
+        // After selection everything right of k is >= a[k]; the next order statistic is their minimum
+        double upper = a[k + 1];
+        for (int i = k + 2; i < n; i++) if (a[i] < upper) upper = a[i];
+        return lower + (pos - k) * (upper - lower);
+    }
+
+    public double median(double[] values) {
+        return percentile(values, 50);
+    }
+
+    /** Approximate percentile of a large array through a {@link QuantileSketch} with the given k. */
+    public double approximatePercentile(double[] values, double p, int k) {
+        if (values.length == 0) throw new ArithmeticException("Sem dados");
+        return QuantileSketch.of(values, k).percentile(p);
+    }
+
+    /** Rearranges {@code a} so that a[k] is the k-th smallest (Hoare quickselect, median of three). */
+    private static double select(double[] a, int k) {
+        int lo = 0, hi = a.length - 1;
+        while (hi > lo) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < a[lo]) swap(a, mid, lo);
+            if (a[hi] < a[lo]) swap(a, hi, lo);
+            if (a[hi] < a[mid]) swap(a, hi, mid);
+            double pivot = a[mid];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (a[i] < pivot) i++;
+                while (a[j] > pivot) j--;
+                if (i <= j) swap(a, i++, j--);
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else break;
+        }
+        return a[k];
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /** Returns {a, b, r^2} for y = a + b x, from one pass over the pairs. */
     public double[] linearRegression(double[] x, double[] y) {
         if (x.length != y.length || x.length < 2) throw new ArithmeticException("Dados insuficientes");
-        int n = x.length;
-        double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
-        for (int i = 0; i < n; i++) {
-            sumX += x[i]; sumY += y[i]; sumXY += x[i] * y[i]; sumX2 += x[i] * x[i];
-        }
-        double denom = n * sumX2 - sumX * sumX;
-        if (denom == 0) throw new ArithmeticException("Regressão indefinida");
-        double b = (n * sumXY - sumX * sumY) / denom;
-        double a = (sumY - b * sumX) / n;
-        // r^2
-        double meanY = sumY / n;
-        double ssTot = 0, ssRes = 0;
-        for (int i = 0; i < n; i++) {
-            ssTot += (y[i] - meanY) * (y[i] - meanY);
-            double pred = a + b * x[i];
-            ssRes += (y[i] - pred) * (y[i] - pred);
-        }
-        double r2 = ssTot == 0 ? 1 : 1 - ssRes / ssTot;
-        return new double[]{a, b, r2};
+        RegressionAccumulator acc = RegressionAccumulator.of(x, y);
+        double b = acc.slope();
+        return new double[]{acc.meanY() - b * acc.meanX(), b, acc.rSquared()};
+    }
+
+    /** Same as {@link #linearRegression(double[], double[])} over column views. */
+    public double[] linearRegression(DoubleBuffer x, DoubleBuffer y) {
+        if (x.remaining() != y.remaining() || x.remaining() < 2) throw new ArithmeticException("Dados insuficientes");
+        RegressionAccumulator acc = RegressionAccumulator.of(x, y);
+        double b = acc.slope();
+        return new double[]{acc.meanY() - b * acc.meanX(), b, acc.rSquared()};
+    }
+
+    /** Multiple regression with intercept; see {@link Regression}. */
+    public Regression.Result multipleRegression(double[][] columns, double[] y) {
+        return Regression.fit(columns, y);
+    }
+
+    /** Polynomial fit of the given degree; see {@link Regression#polynomial}. */
+    public Regression.Result polynomialRegression(double[] x, double[] y, int degree) {
+        return Regression.polynomial(x, y, degree);
     }
 
     // Format
@@ -0,0 +1,203 @@
+package com.vibecoding.calculator.engine;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Goal seek: finds the input x for which {@code f(x)} equals a target.
+ * A bracket is grown geometrically around the starting guess, then
+ * Brent's method (bisection mixed with secant and inverse quadratic
+ * steps) closes it, so each solve needs no derivative and always stays
+ * inside the bracket.
+ *
+ * <p>Evaluations go through a small direct-mapped cache. Bracket searches
+ * for different targets probe the same points, so batch runs reuse most
+ * of them. A single instance is not thread-safe; {@link #seekAll} gives
+ * each worker its own cache.</p>
+ */
+public class GoalSeek {
+    private static final int CACHE_SIZE = 256;
+
+    private final DoubleUnaryOperator function;
+    private double guess = 0;
+    private double lowerBound = Double.NEGATIVE_INFINITY;
+    private double upperBound = Double.POSITIVE_INFINITY;
+    private double tolerance = 1e-12;
+    private int maxIterations = 200;
+    private final Cache cache = new Cache();
+
+    public GoalSeek(DoubleUnaryOperator function) {
+        this.function = function;
+    }
+
+    public GoalSeek setGuess(double guess) {
+        this.guess = guess;
+        return this;
+    }
+
+    /** Domain of x; the bracket never leaves it (e.g. a rate above -100%). */
+    public GoalSeek setBounds(double lower, double upper) {
+        if (!(lower < upper)) throw new IllegalArgumentException("Limites inválidos");
+        this.lowerBound = lower;
+        this.upperBound = upper;
+        return this;
+    }
+
+    /** Absolute tolerance on x. */
+    public GoalSeek setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    public GoalSeek setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+        return this;
+    }
+
+    /** Outcome of one goal seek. */
+    public static class Result {
+        public final double value;
+        public final double residual;
+        public final int iterations;
+        public final int evaluations;
+        public final int cacheHits;
+        public final boolean converged;
+
+        public Result(double value, double residual, int iterations, int evaluations, int cacheHits, boolean converged) {
+            this.value = value;
+            this.residual = residual;
+            this.iterations = iterations;
+            this.evaluations = evaluations;
+            this.cacheHits = cacheHits;
+            this.converged = converged;
+        }
+    }
+
+    /** Input giving {@code target}; fails if no bracket is found or Brent does not converge. */
+    public double solve(double target) {
+        Result r = seek(target);
+        if (Double.isNaN(r.value)) throw new ArithmeticException("Meta inatingível: nenhuma troca de sinal encontrada");
+        if (!r.converged) throw new ArithmeticException("Busca de meta não convergiu");
+        return r.value;
+    }
+
+    /** Full report of one solve; {@code value} is NaN when no bracket is found. */
+    public Result seek(double target) {
+        return seek(target, cache);
+    }
+
+    /**
+     * Solves every target in parallel; {@code out[k]} gets the input or NaN.
+     * {@code iterations} may be null.
+     */
+    public void seekAll(double[] targets, double[] out, int[] iterations) {
+        if (out.length < targets.length) throw new IllegalArgumentException("Saída pequena demais");
+        ParallelRange.forEach(targets.length, 64, (from, to) -> {
+            Cache local = new Cache();
+            for (int k = from; k < to; k++) {
+                Result r = seek(targets[k], local);
+                out[k] = r.converged ? r.value : Double.NaN;
+                if (iterations != null) iterations[k] = r.iterations;
+            }
+        });
+    }
+
+    private Result seek(double target, Cache c) {
+        int hitsBefore = c.hits, evalsBefore = c.calls;
+        // Grow a bracket around the guess, clamped to the bounds
+        double step = Math.max(Math.abs(guess) * 0.1, 0.1);
+        double a = clamp(guess - step), b = clamp(guess + step);
+        double fa = c.get(function, a) - target, fb = c.get(function, b) - target;
+        for (int k = 0; k < 80 && !brackets(fa, fb); k++) {
+            if (Double.isNaN(fa) || Double.isNaN(fb)) break;
+            step *= 2;
+            double na = clamp(guess - step), nb = clamp(guess + step);
+            if (na == a && nb == b) break;
+            if (na != a) { a = na; fa = c.get(function, a) - target; }
+            if (nb != b) { b = nb; fb = c.get(function, b) - target; }
+        }
+        if (!brackets(fa, fb)) {
+            return new Result(Double.NaN, Double.NaN, 0, c.calls - evalsBefore, c.hits - hitsBefore, false);
+        }
+
+        // Brent's method (zeroin)
+        double cc = b, fc = fb, d = b - a, e = d;
+        for (int iter = 1; iter <= maxIterations; iter++) {
+            if ((fb > 0) == (fc > 0)) {
+                cc = a;
+                fc = fa;
+                d = e = b - a;
+            }
+            if (Math.abs(fc) < Math.abs(fb)) {
+                a = b; b = cc; cc = a;
+                fa = fb; fb = fc; fc = fa;
+            }
+            double tol1 = 2 * Math.ulp(1.0) * Math.abs(b) + 0.5 * tolerance;
+            double xm = 0.5 * (cc - b);
+            if (Math.abs(xm) <= tol1 || fb == 0) {
+                return new Result(b, Math.abs(fb), iter, c.calls - evalsBefore, c.hits - hitsBefore, true);
+            }
+            if (Math.abs(e) >= tol1 && Math.abs(fa) > Math.abs(fb)) {
+                double s = fb / fa, p, q;
+                if (a == cc) {
+                    // Secant
+                    p = 2 * xm * s;
+                    q = 1 - s;
+                } else {
+                    // Inverse quadratic interpolation
+                    double qq = fa / fc, r = fb / fc;
+                    p = s * (2 * xm * qq * (qq - r) - (b - a) * (r - 1));
+                    q = (qq - 1) * (r - 1) * (s - 1);
+                }
+                if (p > 0) q = -q;
+                p = Math.abs(p);
+                if (2 * p < Math.min(3 * xm * q - Math.abs(tol1 * q), Math.abs(e * q))) {
+                    e = d;
+                    d = p / q;
+                } else {
+                    d = xm;
+                    e = d;
+                }
+            } else {
+                d = xm;
+                e = d;
+            }
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > tol1 ? d : Math.copySign(tol1, xm);
+            fb = c.get(function, b) - target;
+        }
+        return new Result(b, Math.abs(fb), maxIterations, c.calls - evalsBefore, c.hits - hitsBefore, false);
+    }
+
+    private static boolean brackets(double fa, double fb) {
+        return fa == 0 || fb == 0 || (fa < 0) != (fb < 0) && !Double.isNaN(fa) && !Double.isNaN(fb);
+    }
+
+    private double clamp(double x) {
+        return Math.max(lowerBound, Math.min(upperBound, x));
+    }
+
+    /** Direct-mapped cache of f(x) keyed by the bits of x. */
+    private static final class Cache {
+        private final long[] keys = new long[CACHE_SIZE];
+        private final double[] values = new double[CACHE_SIZE];
+        private final boolean[] used = new boolean[CACHE_SIZE];
+        int calls;
+        int hits;
+
+        double get(DoubleUnaryOperator f, double x) {
+            calls++;
+            long bits = Double.doubleToLongBits(x);
+            int slot = (int) (bits ^ (bits >>> 29) ^ (bits >>> 43)) & (CACHE_SIZE - 1);
+            if (used[slot] && keys[slot] == bits) {
+                hits++;
+                return values[slot];
+            }
+            double y = f.applyAsDouble(x);
+            keys[slot] = bits;
+            values[slot] = y;
+            used[slot] = true;
+            return y;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.vibecoding.calculator.engine;
+
+import java.util.Arrays;
+
+/**
+ * General loan projection: Price (French) or SAC (constant amortization),
+ * grace periods, rate resets (ARM) and scheduled prepayments. Events are
+ * kept as sorted primitive arrays and rows go out through
+ * {@link FinancialEngine.AmortVisitor} or column buffers, so projecting a
+ * whole book allocates nothing per row.
+ *
+ * <p>Rows report the total paid in the period, prepayment included.
+ * During a capitalized grace period the payment is zero and the accrued
+ * interest shows up as negative principal.</p>
+ */
+public class Loan {
+    public enum AmortSystem { PRICE, SAC }
+
+    private final double principal;
+    private final double annualRate;
+    private final int term;
+    private final AmortSystem system;
+
+    private int gracePeriods;
+    private boolean capitalizeGrace;
+    private int[] resetPeriods = new int[0];
+    private double[] resetRates = new double[0];
+    private int[] prepaymentPeriods = new int[0];
+    private double[] prepaymentAmounts = new double[0];
+    private boolean shortenTerm;
+
+    /**
+     * @param annualRate rate per period, in percent, until the first reset
+     * @param term       number of periods, grace included
+     */
+    public Loan(double principal, double annualRate, int term, AmortSystem system) {
+        if (term <= 0) throw new IllegalArgumentException("Prazo inválido");
+        if (principal < 0) throw new IllegalArgumentException("Principal inválido");
+        this.principal = principal;
+        this.annualRate = annualRate;
+        this.term = term;
+        this.system = system;
+    }
+
+    /**
+     * First {@code periods} periods pay interest only, or nothing at all
+     * with the interest added to the balance when {@code capitalize}.
+     */
+    public Loan setGrace(int periods, boolean capitalize) {
+        if (periods < 0 || periods >= term) throw new IllegalArgumentException("Carência inválida");
+        this.gracePeriods = periods;
+        this.capitalizeGrace = capitalize;
+        return this;
+    }
+
+    /** From period {@code periods[k]} on, the rate is {@code rates[k]} percent. Periods ascending. */
+    public Loan setRateResets(int[] periods, double[] rates) {
+        checkEvents(periods, rates.length);
+        this.resetPeriods = periods.clone();
+        this.resetRates = rates.clone();
+        return this;
+    }
+
+    /** Extra principal paid at the end of each listed period. Periods ascending. */
+    public Loan setPrepayments(int[] periods, double[] amounts) {
+        checkEvents(periods, amounts.length);
+        this.prepaymentPeriods = periods.clone();
+        this.prepaymentAmounts = amounts.clone();
+        return this;
+    }
+
+    /**
+     * After a prepayment, keep the installment and shorten the term
+     * ({@code true}) instead of recomputing the installment over the
+     * original term (default).
+     */
+    public Loan setShortenTerm(boolean shortenTerm) {
+        this.shortenTerm = shortenTerm;
+        return this;
+    }
+
+    public double getPrincipal() { return principal; }
+    public int getTerm() { return term; }
+    public AmortSystem getSystem() { return system; }
+
+    private void checkEvents(int[] periods, int valueCount) {
+        if (periods.length != valueCount) throw new IllegalArgumentException("Eventos e valores devem ter o mesmo tamanho");
+        for (int k = 0; k < periods.length; k++) {
+            if (periods[k] < 1 || periods[k] > term || (k > 0 && periods[k] <= periods[k - 1])) {
+                throw new IllegalArgumentException("Períodos de eventos devem ser crescentes e dentro do prazo");
+            }
+        }
+    }
+
+    /** Streams the schedule, period 1 first. Returns the number of rows (the payoff period). */
+    public int project(FinancialEngine.AmortVisitor visitor) {
+        double eps = 1e-9 * Math.max(principal, 1);
+        double balance = principal;
+        double rate = annualRate;
+        double pmt = 0, amort = 0;
+        boolean recast = true;
+        int end = term;
+        int ri = 0, pi = 0;
+
+        for (int p = 1; p <= term; p++) {
+            while (ri < resetPeriods.length && resetPeriods[ri] == p) {
+                rate = resetRates[ri++];
+                recast = true;
+            }
+            double i = rate / 100.0;
+            double interest = balance * i;
+            double payment, principalPart;
+
+            if (p <= gracePeriods) {
+                if (capitalizeGrace) {
+                    payment = 0;
+                    principalPart = -interest;
+                    balance += interest;
+                } else {
+                    payment = interest;
+                    principalPart = 0;
+                }
+            } else {
+                if (recast) {
+                    int remaining = end - p + 1;
+                    if (system == AmortSystem.PRICE) pmt = FinancialEngine.pricePayment(balance, i, remaining);
+                    else amort = balance / remaining;
+                    recast = false;
+                }
+                principalPart = system == AmortSystem.PRICE ? pmt - interest : amort;
+                if (p >= end || principalPart > balance) principalPart = balance;
+                payment = principalPart + interest;
+                balance -= principalPart;
+            }
+
+            if (pi < prepaymentPeriods.length && prepaymentPeriods[pi] == p) {
+                double extra = Math.min(prepaymentAmounts[pi++], balance);
+                balance -= extra;
+                payment += extra;
+                principalPart += extra;
+                if (balance > eps && p > gracePeriods) {
+                    if (shortenTerm) end = p + periodsLeft(balance, i, pmt, amort);
+                    else recast = true;
+                }
+            }
+
+            if (balance <= eps) balance = 0;
+            visitor.row(p, payment, interest, principalPart, balance);
+            if (balance == 0 && p > gracePeriods) return p;
+        }
+        return term;
+    }
+
+    /** Periods needed to repay {@code balance} keeping the current installment. */
+    private int periodsLeft(double balance, double i, double pmt, double amort) {
+        double n;
+        if (system == AmortSystem.SAC) {
+            n = balance / amort;
+        } else if (i == 0) {
+            n = balance / pmt;
+        } else {
+            n = -Math.log1p(-balance * i / pmt) / Math.log1p(i);
+        }
+        return (int) Math.min(Math.ceil(n - 1e-9), Integer.MAX_VALUE / 2);
+    }
+
+    /**
+     * Writes the schedule column by column: period p goes to index
+     * {@code offset + p - 1}. Null columns are skipped. Returns the number
+     * of rows written; rows after payoff are left untouched.
+     */
+    public int project(double[] payments, double[] interests, double[] principals, double[] balances, int offset) {
+        return project((p, payment, interest, principalPart, balance) -> {
+            int k = offset + p - 1;
+            if (payments != null) payments[k] = payment;
+            if (interests != null) interests[k] = interest;
+            if (principals != null) principals[k] = principalPart;
+            if (balances != null) balances[k] = balance;
+        });
+    }
+
+    // ========== BOOK ==========
+
+    /** Row offsets for {@link #projectAll}: loan s gets rows [offsets[s], offsets[s] + term). */
+    public static int[] rowOffsets(Loan[] loans) {
+        int[] offsets = new int[loans.length + 1];
+        for (int s = 0; s < loans.length; s++) {
+            offsets[s + 1] = Math.addExact(offsets[s], loans[s].term);
+        }
+        return offsets;
+    }
+
+    /**
+     * Projects every loan in parallel into shared column buffers laid out
+     * by {@link #rowOffsets}. Rows after a loan's payoff are zeroed.
+     */
+    public static void projectAll(Loan[] loans, int[] offsets,
+                                  double[] payments, double[] interests, double[] principals, double[] balances) {
+        int grain = ParallelRange.grain(loans.length, s -> loans[s].term);
+        ParallelRange.forEach(loans.length, grain, (from, to) -> {
+            for (int s = from; s < to; s++) {
+                int rows = loans[s].project(payments, interests, principals, balances, offsets[s]);
+                int a = offsets[s] + rows, b = offsets[s + 1];
+                if (payments != null) Arrays.fill(payments, a, b, 0);
+                if (interests != null) Arrays.fill(interests, a, b, 0);
+                if (principals != null) Arrays.fill(principals, a, b, 0);
+                if (balances != null) Arrays.fill(balances, a, b, 0);
+            }
+        });
+    }
+
+    /**
+     * Aggregate book cash flows: index p - 1 receives the interest and
+     * principal of period p summed over all loans. Arrays must cover the
+     * longest term; they are overwritten.
+     */
+    public static void bookCashFlows(Loan[] loans, double[] interestByPeriod, double[] principalByPeriod) {
+        int maxTerm = 0;
+        for (Loan loan : loans) maxTerm = Math.max(maxTerm, loan.term);
+        if (interestByPeriod.length < maxTerm || principalByPeriod.length < maxTerm) {
+            throw new IllegalArgumentException("Saída pequena demais");
+        }
+        Arrays.fill(interestByPeriod, 0);
+        Arrays.fill(principalByPeriod, 0);
+        int periods = maxTerm;
+        // Interest in [0, periods), principal in [periods, 2 periods)
+        double[] sums = new double[2 * periods];
+        int grain = ParallelRange.grain(loans.length, s -> loans[s].term);
+        ParallelRange.sumInOrder(loans.length, grain, 2 * periods, (from, to, partial) -> {
+            for (int s = from; s < to; s++) {
+                loans[s].project((p, payment, i, principalPart, balance) -> {
+                    partial[p - 1] += i;
+                    partial[periods + p - 1] += principalPart;
+                });
+            }
+        }, sums);
+        System.arraycopy(sums, 0, interestByPeriod, 0, periods);
+        System.arraycopy(sums, periods, principalByPeriod, 0, periods);
+    }
+}
@@ -0,0 +1,302 @@
+package com.vibecoding.calculator.engine;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Exact monetary amount: a {@code long} count of minor units (cents by
+ * default) and a decimal scale. Sums are exact, and products and divisions
+ * round once with an explicit {@link RoundingMode}.
+ *
+ * <p>Arithmetic runs on {@code long} with {@code Math.*Exact}. Only when
+ * an intermediate product overflows does it redo that operation in
+ * {@link BigDecimal}. A result that does not fit in a {@code long} fails
+ * with {@link ArithmeticException}.</p>
+ */
+public final class Money implements Comparable<Money> {
+    public static final int MAX_SCALE = 9;
+
+    private static final long[] POW10 = new long[19];
+    static {
+        POW10[0] = 1;
+        for (int k = 1; k < POW10.length; k++) POW10[k] = POW10[k - 1] * 10;
+    }
+
+    private final long units;
+    private final int scale;
+
+    private Money(long units, int scale) {
+        this.units = units;
+        this.scale = scale;
+    }
+
+    /** Amount of {@code units} minor units, e.g. ofMinor(1999, 2) is 19.99. */
+    public static Money ofMinor(long units, int scale) {
+        checkScale(scale);
+        return new Money(units, scale);
+    }
+
+    /** Amount in cents, rounding half-even. */
+    public static Money of(double amount) {
+        return of(amount, 2, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Amount rounded to {@code scale} decimals. The double is read as its
+     * shortest decimal form (0.125 is exactly 0.125, 2.675 is 2.675), so
+     * typed values round the way they look.
+     */
+    public static Money of(double amount, int scale, RoundingMode mode) {
+        checkScale(scale);
+        return new Money(Factor.of(amount).apply(POW10[scale], mode), scale);
+    }
+
+    public static Money of(BigDecimal amount, int scale, RoundingMode mode) {
+        checkScale(scale);
+        try {
+            return new Money(amount.setScale(scale, mode).unscaledValue().longValueExact(), scale);
+        } catch (ArithmeticException e) {
+            throw outOfRange();
+        }
+    }
+
+    public static Money zero(int scale) {
+        return ofMinor(0, scale);
+    }
+
+    public long units() { return units; }
+    public int scale() { return scale; }
+    public int signum() { return Long.signum(units); }
+    public boolean isZero() { return units == 0; }
+
+    public double toDouble() {
+        return (double) units / POW10[scale];
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, scale);
+    }
+
+    public Money plus(Money other) {
+        checkSameScale(other);
+        try {
+            return new Money(Math.addExact(units, other.units), scale);
+        } catch (ArithmeticException e) {
+            throw outOfRange();
+        }
+    }
+
+    public Money minus(Money other) {
+        checkSameScale(other);
+        try {
+            return new Money(Math.subtractExact(units, other.units), scale);
+        } catch (ArithmeticException e) {
+            throw outOfRange();
+        }
+    }
+
+    public Money negate() {
+        try {
+            return new Money(Math.negateExact(units), scale);
+        } catch (ArithmeticException e) {
+            throw outOfRange();
+        }
+    }
+
+    public Money abs() {
+        return units < 0 ? negate() : this;
+    }
+
+    public Money times(long multiplier) {
+        try {
+            return new Money(Math.multiplyExact(units, multiplier), scale);
+        } catch (ArithmeticException e) {
+            throw outOfRange();
+        }
+    }
+
+    /** Product with a factor, rounded once. */
+    public Money times(double factor, RoundingMode mode) {
+        return new Money(Factor.of(factor).apply(units, mode), scale);
+    }
+
+    /** {@code percent}% of this amount, rounded once. */
+    public Money percent(double percent, RoundingMode mode) {
+        return new Money(Factor.of(percent).over(100).apply(units, mode), scale);
+    }
+
+    public Money divide(long divisor, RoundingMode mode) {
+        if (divisor == 0) throw new ArithmeticException("Divisão por zero");
+        return new Money(mulDiv(units, 1, divisor, mode), scale);
+    }
+
+    /**
+     * Splits into {@code parts} amounts that differ by at most one minor
+     * unit and add up exactly to this amount; the larger ones come first.
+     */
+    public Money[] allocate(int parts) {
+        if (parts <= 0) throw new IllegalArgumentException("Partes devem ser positivas");
+        long base = units / parts, rest = units % parts;
+        Money[] out = new Money[parts];
+        for (int k = 0; k < parts; k++) {
+            long extra = k < Math.abs(rest) ? Long.signum(rest) : 0;
+            out[k] = new Money(base + extra, scale);
+        }
+        return out;
+    }
+
+    /** This amount divided by another, as a plain number. */
+    public double ratio(Money other) {
+        checkSameScale(other);
+        if (other.units == 0) throw new ArithmeticException("Divisão por zero");
+        return (double) units / other.units;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkSameScale(other);
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money m && m.units == units && m.scale == scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units) * 31 + scale;
+    }
+
+    /** Plain decimal text, e.g. "-1234.50". */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    // ========== INTERNALS ==========
+
+    /**
+     * round(a * num / den) in the given mode; den must be positive. Uses
+     * long arithmetic when the product fits and BigDecimal otherwise.
+     */
+    static long mulDiv(long a, long num, long den, RoundingMode mode) {
+        if (den < 0) {
+            num = -num;
+            den = -den;
+        }
+        long product;
+        try {
+            product = Math.multiplyExact(a, num);
+        } catch (ArithmeticException overflow) {
+            BigDecimal exact = BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(num));
+            return toLong(exact.divide(BigDecimal.valueOf(den), 0, mode));
+        }
+        return roundDiv(product, den, mode);
+    }
+
+    /** round(p / d) for d > 0 without leaving long arithmetic. */
+    static long roundDiv(long p, long d, RoundingMode mode) {
+        long q = p / d, r = p % d;
+        if (r == 0) return q;
+        int sign = p < 0 ? -1 : 1;
+        // Compare the remainder with half the divisor without overflowing
+        long absR = Math.abs(r);
+        int half = Long.compare(absR, d - absR);
+        boolean awayFromZero = switch (mode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP -> half >= 0;
+            case HALF_DOWN -> half > 0;
+            case HALF_EVEN -> half > 0 || (half == 0 && (q & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Arredondamento necessário");
+        };
+        return awayFromZero ? q + sign : q;
+    }
+
+    private static long toLong(BigDecimal value) {
+        try {
+            return value.longValueExact();
+        } catch (ArithmeticException e) {
+            throw outOfRange();
+        }
+    }
+
+    private static ArithmeticException outOfRange() {
+        return new ArithmeticException("Valor monetário fora do intervalo");
+    }
+
+    private static void checkScale(int scale) {
+        if (scale < 0 || scale > MAX_SCALE) throw new IllegalArgumentException("Escala inválida: " + scale);
+    }
+
+    private void checkSameScale(Money other) {
+        if (other.scale != scale) throw new IllegalArgumentException("Escalas diferentes");
+    }
+
+    /**
+     * A double read as the exact decimal num / den, found once and then
+     * applied to many amounts (e.g. a rate over every period of a
+     * schedule). Falls back to BigDecimal when the decimal needs more
+     * digits than a long holds.
+     */
+    static final class Factor {
+        private final long num;
+        private final long den;
+        private final BigDecimal big;
+
+        private Factor(long num, long den, BigDecimal big) {
+            this.num = num;
+            this.den = den;
+            this.big = big;
+        }
+
+        static Factor of(double x) {
+            if (Double.isNaN(x) || Double.isInfinite(x)) throw new ArithmeticException("Valor inválido");
+            // Fewest decimals whose value rounds back to x: the shortest form
+            for (int k = 0; k <= 15; k++) {
+                double scaled = x * POW10[k];
+                if (Math.abs(scaled) >= 0x1p53) break;
+                double n = Math.rint(scaled);
+                if (n / POW10[k] == x) return new Factor((long) n, POW10[k], null);
+            }
+            return new Factor(0, 1, BigDecimal.valueOf(x));
+        }
+
+        /** This factor divided by a positive integer. */
+        Factor over(long divisor) {
+            if (big == null && den <= Long.MAX_VALUE / divisor) return new Factor(num, den * divisor, null);
+            BigDecimal value = big != null ? big : BigDecimal.valueOf(num).divide(BigDecimal.valueOf(den));
+            return new Factor(0, 1, value.divide(BigDecimal.valueOf(divisor), MathContext.DECIMAL128));
+        }
+
+        /** round(a * factor). */
+        long apply(long a, RoundingMode mode) {
+            if (big == null) return mulDiv(a, num, den, mode);
+            return toLong(BigDecimal.valueOf(a).multiply(big).setScale(0, mode));
+        }
+
+        /** 1 - this factor. */
+        Factor complement() {
+            if (big == null && num >= 0 && num <= den) return new Factor(den - num, den, null);
+            BigDecimal value = big != null ? big : BigDecimal.valueOf(num).divide(BigDecimal.valueOf(den), MathContext.DECIMAL128);
+            return new Factor(0, 1, BigDecimal.ONE.subtract(value));
+        }
+
+        /** round(a * factor^k) with a single rounding, computed exactly. */
+        long applyPower(long a, int k, RoundingMode mode) {
+            if (k == 0) return a;
+            if (k == 1) return apply(a, mode);
+            if (big == null) {
+                BigInteger n = BigInteger.valueOf(a).multiply(BigInteger.valueOf(num).pow(k));
+                BigInteger d = BigInteger.valueOf(den).pow(k);
+                return toLong(new BigDecimal(n).divide(new BigDecimal(d), 0, mode));
+            }
+            return toLong(BigDecimal.valueOf(a).multiply(big.pow(k)).setScale(0, mode));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.vibecoding.calculator.engine;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Splits an index range across the common ForkJoin pool. Batch APIs in
+ * this package hand each leaf a contiguous [from, to) slice, so per-item
+ * work stays allocation-free and scratch buffers can be made per leaf.
+ */
+final class ParallelRange {
+    /** Target number of rows handled by one leaf of a batch of schedules. */
+    static final int ROWS_PER_TASK = 1 << 15;
+    /** Most partial vectors kept by {@link #sumInOrder}, bounding its memory. */
+    static final int MAX_PARTIALS = 256;
+
+    @FunctionalInterface
+    interface Body {
+        void run(int from, int to);
+    }
+
+    /** Builds the partial result of chunk {@code chunk}, covering items [from, to). */
+    @FunctionalInterface
+    interface Leaf<T> {
+        T run(int chunk, int from, int to);
+    }
+
+    /** Adds the vectors of items [from, to) into {@code sums}, which starts zeroed. */
+    @FunctionalInterface
+    interface VectorBody {
+        void run(int from, int to, double[] sums);
+    }
+
+    private ParallelRange() {}
+
+    /**
+     * Items per leaf for a batch of schedules, such that a leaf covers
+     * about {@link #ROWS_PER_TASK} rows; {@code rows} gives the row count
+     * of item i.
+     */
+    static int grain(int n, IntUnaryOperator rows) {
+        if (n == 0) return 1;
+        long total = 0;
+        for (int i = 0; i < n; i++) total += rows.applyAsInt(i);
+        long avg = Math.max(total / n, 1);
+        return (int) Math.max(1, ROWS_PER_TASK / avg);
+    }
+
+    /** Runs {@code body} over [0, n) in leaves of at most {@code grain} items. */
+    static void forEach(int n, int grain, Body body) {
+        if (n <= 0) return;
+        int g = Math.max(grain, 1);
+        if (n <= g) {
+            body.run(0, n);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new Task(0, n, g, body));
+    }
+
+    /**
+     * Splits [0, n) into chunks of {@code chunk} items, builds one partial
+     * per chunk in parallel and folds them with {@code combine} in chunk
+     * order, so the result does not depend on thread scheduling. An empty
+     * range still gets one empty leaf; n must not be negative.
+     */
+    static <T> T reduce(int n, int chunk, Leaf<T> leaf, BinaryOperator<T> combine) {
+        int size = Math.max(chunk, 1);
+        int chunks = Math.max(1, (int) (((long) n + size - 1) / size));
+        Object[] parts = new Object[chunks];
+        forEach(chunks, 1, (from, to) -> {
+            for (int c = from; c < to; c++) {
+                int start = c * size;
+                parts[c] = leaf.run(c, start, (int) Math.min((long) start + size, n));
+            }
+        });
+        @SuppressWarnings("unchecked")
+        T total = (T) parts[0];
+        for (int c = 1; c < chunks; c++) {
+            @SuppressWarnings("unchecked")
+            T part = (T) parts[c];
+            total = combine.apply(total, part);
+        }
+        return total;
+    }
+
+    /**
+     * Sums per-item vectors of length {@code width} over [0, n) into
+     * {@code out[0, width)}, which is overwritten. Items go in at most
+     * {@link #MAX_PARTIALS} chunks of at least {@code grain}, each filling
+     * its own vector, and the vectors are added in chunk order through
+     * {@link #reduce}.
+     */
+    static void sumInOrder(int n, int grain, int width, VectorBody body, double[] out) {
+        int size = Math.max(grain, (n + MAX_PARTIALS - 1) / MAX_PARTIALS);
+        double[] total = reduce(n, size, (c, from, to) -> {
+            double[] sums = new double[width];
+            body.run(from, to, sums);
+            return sums;
+        }, (a, b) -> {
+            for (int k = 0; k < width; k++) a[k] += b[k];
+            return a;
+        });
+        System.arraycopy(total, 0, out, 0, width);
+    }
+
+    private static final class Task extends RecursiveAction {
+        private final int from, to, grain;
+        private final Body body;
+
+        Task(int from, int to, int grain, Body body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Task(from, mid, grain, body), new Task(mid, to, grain, body));
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.vibecoding.calculator.engine;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Mergeable quantile sketch (KLL). Values enter level 0; when the sketch
+ * outgrows its budget, the lowest full level is sorted and every other
+ * item, from a random start, moves up one level with twice the weight.
+ * Level capacities shrink geometrically (factor 2/3) going down from the
+ * top level, so memory stays around 3k values whatever the input size.
+ * The rank error shrinks in proportion to 1/k; k = 200 keeps it under 1%.
+ *
+ * <p>Up to {@code exactCapacity} values nothing is compacted and queries
+ * are exact, interpolating between order statistics like
+ * {@link RateSimulation.Result#percentile}. Sketches built over separate
+ * chunks {@link #merge} into one.</p>
+ */
+public class QuantileSketch {
+    public static final int DEFAULT_K = 200;
+
+    private static final int MIN_CAPACITY = 8;
+    private static final int CHUNK = 1 << 16;
+
+    private final int k;
+    private final int exactCapacity;
+    private final SplittableRandom random;
+    private double[][] levels = {new double[16]};
+    private int[] sizes = {0};
+    private int retained;
+    private int[] capacities;
+    private int totalCapacity;
+    private boolean exact = true;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    // Sorted view for queries, rebuilt after updates
+    private double[] sortedValues;
+    private long[] cumulativeWeights;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    public QuantileSketch(int k) {
+        this(k, Math.max(8 * k, 1024), 42);
+    }
+
+    /**
+     * @param k             accuracy: larger is more precise and uses more memory
+     * @param exactCapacity values kept exactly before compaction starts
+     * @param seed          seed of the coin flips, for reproducible sketches
+     */
+    public QuantileSketch(int k, int exactCapacity, long seed) {
+        if (k < MIN_CAPACITY) throw new IllegalArgumentException("k deve ser pelo menos " + MIN_CAPACITY);
+        if (exactCapacity < 0) throw new IllegalArgumentException("Capacidade inválida");
+        this.k = k;
+        this.exactCapacity = exactCapacity;
+        this.random = new SplittableRandom(seed);
+        updateCapacities();
+    }
+
+    /** Sketch with the given k over a whole array, built per chunk in parallel and merged in order. */
+    public static QuantileSketch of(double[] values, int k) {
+        return ParallelRange.reduce(values.length, CHUNK, (c, from, to) -> {
+            QuantileSketch part = new QuantileSketch(k, Math.max(8 * k, 1024), 42 + c);
+            for (int i = from; i < to; i++) part.add(values[i]);
+            return part;
+        }, QuantileSketch::merge);
+    }
+
+    /** Same as {@link #of(double[], int)} over the remaining values of a buffer. */
+    public static QuantileSketch of(DoubleBuffer values, int k) {
+        int base = values.position();
+        return ParallelRange.reduce(values.remaining(), CHUNK, (c, from, to) -> {
+            QuantileSketch part = new QuantileSketch(k, Math.max(8 * k, 1024), 42 + c);
+            for (int i = base + from; i < base + to; i++) part.add(values.get(i));
+            return part;
+        }, QuantileSketch::merge);
+    }
+
+    /** Adds a value; NaN is ignored. */
+    public QuantileSketch add(double x) {
+        if (Double.isNaN(x)) return this;
+        if (sizes[0] == levels[0].length) levels[0] = Arrays.copyOf(levels[0], levels[0].length * 2);
+        levels[0][sizes[0]++] = x;
+        retained++;
+        count++;
+        if (x < min) min = x;
+        if (x > max) max = x;
+        sortedValues = null;
+        if (retained > (exact ? exactCapacity : totalCapacity)) compress();
+        return this;
+    }
+
+    /** Folds {@code other} into this sketch; {@code other} is left unchanged. */
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.count == 0) return this;
+        while (levels.length < other.levels.length) addLevel();
+        for (int h = 0; h < other.levels.length; h++) {
+            int n = other.sizes[h];
+            if (n == 0) continue;
+            ensureRoom(h, n);
+            System.arraycopy(other.levels[h], 0, levels[h], sizes[h], n);
+            sizes[h] += n;
+            retained += n;
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        exact &= other.exact;
+        sortedValues = null;
+        if (retained > (exact ? exactCapacity : totalCapacity)) compress();
+        return this;
+    }
+
+    public long count() { return count; }
+    public double min() { return min; }
+    public double max() { return max; }
+
+    /** True while every value is still stored, so queries are exact. */
+    public boolean isExact() { return exact; }
+
+    /** Number of values held in memory. */
+    public int retained() { return retained; }
+
+    /** Quantile q in [0, 1]. */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) throw new IllegalArgumentException("Quantil deve estar entre 0 e 1");
+        if (count == 0) throw new ArithmeticException("Sem dados");
+        buildSortedView();
+        int n = sortedValues.length;
+        if (exact) {
+            double pos = q * (n - 1);
+            int i = (int) pos;
+            if (i + 1 >= n) return sortedValues[n - 1];
+            return sortedValues[i] + (pos - i) * (sortedValues[i + 1] - sortedValues[i]);
+        }
+        if (q == 0) return min;
+        if (q == 1) return max;
+        double target = q * count;
+        int lo = 0, hi = n - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulativeWeights[mid] >= target) hi = mid; else lo = mid + 1;
+        }
+        return sortedValues[lo];
+    }
+
+    /** Percentile p in [0, 100]. */
+    public double percentile(double p) {
+        if (p < 0 || p > 100) throw new IllegalArgumentException("Percentil deve estar entre 0 e 100");
+        return quantile(p / 100.0);
+    }
+
+    public double median() {
+        return quantile(0.5);
+    }
+
+    /** Estimated fraction of values less than or equal to {@code x}. */
+    public double rank(double x) {
+        if (count == 0) throw new ArithmeticException("Sem dados");
+        buildSortedView();
+        int lo = 0, hi = sortedValues.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedValues[mid] <= x) lo = mid + 1; else hi = mid;
+        }
+        return lo == 0 ? 0 : (double) cumulativeWeights[lo - 1] / count;
+    }
+
+    // ========== COMPACTION ==========
+
+    /** Capacity of each level, k (2/3)^depth below the top; recomputed when a level is added. */
+    private void updateCapacities() {
+        capacities = new int[levels.length];
+        totalCapacity = 0;
+        for (int h = 0; h < levels.length; h++) {
+            int depth = levels.length - 1 - h;
+            capacities[h] = Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+            totalCapacity += capacities[h];
+        }
+    }
+
+    private void compress() {
+        exact = false;
+        while (retained > totalCapacity) {
+            int h = 0;
+            while (h < levels.length - 1 && sizes[h] < capacities[h]) h++;
+            compact(h);
+        }
+    }
+
+    /** Halves level h into level h + 1, keeping one item behind if the count is odd. */
+    private void compact(int h) {
+        if (h == levels.length - 1) addLevel();
+        int n = sizes[h];
+        double[] items = levels[h];
+        Arrays.sort(items, 0, n);
+        int keep = n & 1;
+        int promoted = (n - keep) / 2;
+        ensureRoom(h + 1, promoted);
+        double[] up = levels[h + 1];
+        int dst = sizes[h + 1];
+        for (int i = keep + random.nextInt(2); i < n; i += 2) up[dst++] = items[i];
+        sizes[h + 1] = dst;
+        sizes[h] = keep;
+        retained -= n - keep - promoted;
+    }
+
+    private void addLevel() {
+        int h = levels.length;
+        levels = Arrays.copyOf(levels, h + 1);
+        sizes = Arrays.copyOf(sizes, h + 1);
+        levels[h] = new double[16];
+        updateCapacities();
+    }
+
+    private void ensureRoom(int h, int extra) {
+        int need = sizes[h] + extra;
+        if (need > levels[h].length) levels[h] = Arrays.copyOf(levels[h], Math.max(need, levels[h].length * 2));
+    }
+
+    /** Sorted items with cumulative weights, merged level by level. */
+    private void buildSortedView() {
+        if (sortedValues != null) return;
+        double[] values = new double[0];
+        long[] weights = new long[0];
+        for (int h = 0; h < levels.length; h++) {
+            int n = sizes[h];
+            if (n == 0) continue;
+            double[] level = Arrays.copyOf(levels[h], n);
+            Arrays.sort(level);
+            long w = 1L << h;
+            // Two-way merge of the running view with this level
+            double[] mergedValues = new double[values.length + n];
+            long[] mergedWeights = new long[values.length + n];
+            int a = 0, b = 0, o = 0;
+            while (a < values.length || b < n) {
+                if (b == n || (a < values.length && values[a] <= level[b])) {
+                    mergedValues[o] = values[a];
+                    mergedWeights[o++] = weights[a++];
+                } else {
+                    mergedValues[o] = level[b++];
+                    mergedWeights[o++] = w;
+                }
+            }
+            values = mergedValues;
+            weights = mergedWeights;
+        }
+        for (int i = 1; i < weights.length; i++) weights[i] += weights[i - 1];
+        sortedValues = values;
+        cumulativeWeights = weights;
+    }
+}
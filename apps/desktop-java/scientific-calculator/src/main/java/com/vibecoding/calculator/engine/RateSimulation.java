@@ -0,0 +1,204 @@
+package com.vibecoding.calculator.engine;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Monte Carlo valuation of a cash-flow vector under a short-rate model.
+ * Paths are simulated in chunks, each chunk stepping all its paths
+ * together over primitive arrays and keeping only the running discount
+ * integral, so memory is one double per path plus a few per chunk,
+ * whatever the number of steps.
+ *
+ * <p>Every chunk draws from its own {@link SplittableRandom} split from
+ * the seed in chunk order, so results are reproducible whatever the
+ * thread scheduling. Rates are in percent per year; cash flows fall one
+ * step apart, flow k at k / stepsPerYear years (flow 0 now); see
+ * {@link #bookFlows} for the output of {@link Loan#bookCashFlows}.</p>
+ */
+public class RateSimulation {
+    /**
+     * VASICEK: dr = a (b - r) dt + sigma dW, sampled exactly.
+     * HULL_WHITE: Vasicek-style mean reversion around a deterministic
+     * shift that fits a {@link YieldCurve}.
+     * CIR: dr = a (b - r) dt + sigma sqrt(r) dW, full-truncation Euler.
+     */
+    public enum Model { VASICEK, HULL_WHITE, CIR }
+
+    static final int CHUNK = 4096;
+
+    private final Model model;
+    private final double r0;
+    private final double speed;
+    private final double mean;
+    private final double volatility;
+    private YieldCurve curve;
+    private long seed = 42;
+
+    /**
+     * @param r0         initial short rate (percent); HULL_WHITE starts on the curve instead
+     * @param speed      mean-reversion speed a (per year)
+     * @param mean       long-run rate b (percent); unused by HULL_WHITE
+     * @param volatility sigma (percent per sqrt(year))
+     */
+    public RateSimulation(Model model, double r0, double speed, double mean, double volatility) {
+        if (speed <= 0) throw new IllegalArgumentException("Velocidade de reversão deve ser positiva");
+        this.model = model;
+        this.r0 = r0 / 100.0;
+        this.speed = speed;
+        this.mean = mean / 100.0;
+        this.volatility = volatility / 100.0;
+    }
+
+    /** Initial curve fitted by HULL_WHITE; required for that model. */
+    public RateSimulation setCurve(YieldCurve curve) {
+        this.curve = curve;
+        return this;
+    }
+
+    public RateSimulation setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Cash-flow vector for {@link #value} from the aggregate book flows of
+     * {@link Loan#bookCashFlows}: a zero flow now, then interest plus
+     * principal of period p at index p.
+     */
+    public static double[] bookFlows(double[] interest, double[] principal) {
+        if (interest.length != principal.length) {
+            throw new IllegalArgumentException("Juros e principal devem ter o mesmo tamanho");
+        }
+        double[] flows = new double[interest.length + 1];
+        for (int p = 0; p < interest.length; p++) flows[p + 1] = interest[p] + principal[p];
+        return flows;
+    }
+
+    /** Distribution of the present value over simulated paths. */
+    public static class Result {
+        public final int paths;
+        public final double mean;
+        public final double stdDev;
+        public final double standardError;
+        /** 95% confidence interval of the mean. */
+        public final double lower95;
+        public final double upper95;
+        private final double[] sorted;
+
+        Result(double[] values) {
+            int n = values.length;
+            // Two-pass mean and variance
+            double sum = 0;
+            for (double v : values) sum += v;
+            double m = sum / n;
+            double ss = 0;
+            for (double v : values) ss += (v - m) * (v - m);
+            this.paths = n;
+            this.mean = m;
+            this.stdDev = n > 1 ? Math.sqrt(ss / (n - 1)) : 0;
+            this.standardError = stdDev / Math.sqrt(n);
+            this.lower95 = m - 1.959963984540054 * standardError;
+            this.upper95 = m + 1.959963984540054 * standardError;
+            Arrays.parallelSort(values);
+            this.sorted = values;
+        }
+
+        /** Percentile p in [0, 100], interpolating between order statistics. */
+        public double percentile(double p) {
+            if (p < 0 || p > 100) throw new IllegalArgumentException("Percentil deve estar entre 0 e 100");
+            double pos = p / 100.0 * (sorted.length - 1);
+            int k = (int) pos;
+            if (k + 1 >= sorted.length) return sorted[sorted.length - 1];
+            return sorted[k] + (pos - k) * (sorted[k + 1] - sorted[k]);
+        }
+    }
+
+    /** Present value of {@code cashFlows} along {@code paths} simulated paths. */
+    public Result value(double[] cashFlows, int stepsPerYear, int paths) {
+        if (paths <= 0 || stepsPerYear <= 0) throw new IllegalArgumentException("Parâmetros inválidos");
+        if (model == Model.HULL_WHITE && curve == null) throw new IllegalStateException("Hull-White exige uma curva");
+        int steps = Math.max(cashFlows.length - 1, 0);
+        double dt = 1.0 / stepsPerYear;
+        double[] shift = model == Model.HULL_WHITE ? hullWhiteShift(steps, dt) : null;
+
+        int chunks = (paths + CHUNK - 1) / CHUNK;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) streams[c] = root.split();
+
+        double[] pv = new double[paths];
+        ParallelRange.forEach(chunks, 1, (from, to) -> {
+            double[] x = new double[CHUNK];
+            double[] integral = new double[CHUNK];
+            for (int c = from; c < to; c++) {
+                int first = c * CHUNK;
+                int count = Math.min(CHUNK, paths - first);
+                simulateChunk(streams[c], cashFlows, steps, dt, shift, x, integral, pv, first, count);
+            }
+        });
+        return new Result(pv);
+    }
+
+    /**
+     * Steps {@code count} paths together. {@code x} holds the model state
+     * (the rate, or its deviation from the shift for HULL_WHITE) and
+     * {@code integral} the running integral of r dt (trapezoid rule).
+     */
+    private void simulateChunk(SplittableRandom rng, double[] cf, int steps, double dt, double[] shift,
+                               double[] x, double[] integral, double[] pv, int first, int count) {
+        double a = speed, b = mean, sigma = volatility;
+        double decay = Math.exp(-a * dt);
+        // Exact Ornstein-Uhlenbeck transition for Vasicek and the Hull-White deviation
+        double ouStd = sigma * Math.sqrt(-Math.expm1(-2 * a * dt) / (2 * a));
+        double sqrtDt = Math.sqrt(dt);
+
+        double start = shift != null ? 0 : r0;
+        for (int p = 0; p < count; p++) {
+            x[p] = start;
+            integral[p] = 0;
+            pv[first + p] = cf.length > 0 ? cf[0] : 0;
+        }
+        for (int k = 0; k < steps; k++) {
+            double s0 = shift != null ? shift[k] : 0, s1 = shift != null ? shift[k + 1] : 0;
+            double flow = cf[k + 1];
+            for (int p = 0; p < count; p++) {
+                double before = x[p], after;
+                switch (model) {
+                    case CIR: {
+                        double rp = Math.max(before, 0);
+                        after = before + a * (b - rp) * dt + sigma * Math.sqrt(rp) * sqrtDt * rng.nextGaussian();
+                        integral[p] += 0.5 * (rp + Math.max(after, 0)) * dt;
+                        break;
+                    }
+                    case HULL_WHITE:
+                        after = before * decay + ouStd * rng.nextGaussian();
+                        integral[p] += 0.5 * (before + s0 + after + s1) * dt;
+                        break;
+                    default:
+                        after = before * decay + b * (1 - decay) + ouStd * rng.nextGaussian();
+                        integral[p] += 0.5 * (before + after) * dt;
+                }
+                x[p] = after;
+                if (flow != 0) pv[first + p] += flow * Math.exp(-integral[p]);
+            }
+        }
+    }
+
+    /**
+     * Deterministic shift alpha(t) = f(0, t) + sigma^2 / (2 a^2) (1 - e^(-a t))^2,
+     * so that r = x + alpha reprices the curve's discount factors.
+     */
+    private double[] hullWhiteShift(int steps, double dt) {
+        double a = speed, sigma = volatility;
+        double h = 1.0 / YieldCurve.GRID_PER_YEAR;
+        double[] shift = new double[steps + 1];
+        for (int k = 0; k <= steps; k++) {
+            double t = k * dt;
+            double forward = Math.log(curve.discount(t) / curve.discount(t + h)) / h;
+            double g = -Math.expm1(-a * t);
+            shift[k] = forward + sigma * sigma / (2 * a * a) * g * g;
+        }
+        return shift;
+    }
+}
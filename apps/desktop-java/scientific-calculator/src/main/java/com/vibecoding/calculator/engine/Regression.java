@@ -0,0 +1,348 @@
+package com.vibecoding.calculator.engine;
+
+/**
+ * Multiple linear and polynomial least squares over column-major data:
+ * one {@code double[]} per predictor. Predictors and response are
+ * centered on their means before solving, so offset data such as dates or
+ * large amounts keeps its precision; the intercept is recovered afterwards.
+ *
+ * <p>Two solvers are available. QR (Householder) works on a centered copy
+ * of the data and never squares the condition number. CHOLESKY only needs
+ * the p × p cross-product matrix, accumulated over row blocks in parallel,
+ * so it reads millions of rows without copying them.</p>
+ */
+public class Regression {
+    public enum Solver { QR, CHOLESKY }
+
+    /** Largest n · p that {@link #fit(double[][], double[])} solves by QR. */
+    static final int QR_LIMIT = 1 << 22;
+
+    /** Rows per block when accumulating cross products. */
+    private static final int ROWS_PER_TASK = 1 << 14;
+
+    /**
+     * A centered predictor whose norm, once the earlier ones are projected
+     * out, is below this fraction of its own norm counts as collinear. Both
+     * solvers apply it to norms; Cholesky pivots are squared norms, whose
+     * rounding error is about 1e-16 of the diagonal, so its test uses the
+     * square, 1e-14.
+     */
+    static final double COLLINEARITY_TOLERANCE = 1e-7;
+
+    /** Fitted model; the intercept, when fitted, is coefficient 0. */
+    public static class Result {
+        public final double[] coefficients;
+        public final double[] standardErrors;
+        public final double rSquared;
+        public final double adjustedRSquared;
+        /** Residual standard error, sqrt(RSS / (n - parameters)). */
+        public final double residualStdError;
+        public final int observations;
+        private final double[][] covariance;
+
+        Result(double[] coefficients, double[][] covariance, double rSquared, double adjustedRSquared,
+               double residualStdError, int observations) {
+            this.coefficients = coefficients;
+            this.covariance = covariance;
+            this.standardErrors = new double[coefficients.length];
+            for (int k = 0; k < coefficients.length; k++) standardErrors[k] = Math.sqrt(covariance[k][k]);
+            this.rSquared = rSquared;
+            this.adjustedRSquared = adjustedRSquared;
+            this.residualStdError = residualStdError;
+            this.observations = observations;
+        }
+
+        /** Estimated covariance of coefficients a and b. */
+        public double covariance(int a, int b) {
+            return covariance[a][b];
+        }
+
+        /** t statistic of coefficient k. */
+        public double tStat(int k) {
+            return coefficients[k] / standardErrors[k];
+        }
+    }
+
+    private Regression() {}
+
+    /** Fit with intercept, by QR up to {@link #QR_LIMIT} cells and by Cholesky beyond. */
+    public static Result fit(double[][] columns, double[] y) {
+        long cells = (long) y.length * columns.length;
+        return fit(columns, y, true, cells <= QR_LIMIT ? Solver.QR : Solver.CHOLESKY);
+    }
+
+    public static Result fit(double[][] columns, double[] y, boolean intercept, Solver solver) {
+        int n = y.length, p = columns.length;
+        if (p == 0) throw new IllegalArgumentException("Nenhum preditor");
+        for (double[] column : columns) {
+            if (column.length != n) throw new IllegalArgumentException("Colunas devem ter o mesmo tamanho");
+        }
+        int params = p + (intercept ? 1 : 0);
+        if (n <= params) throw new ArithmeticException("Dados insuficientes");
+
+        StatsAccumulator ys = StatsAccumulator.of(y);
+        double yMean = intercept ? ys.mean() : 0;
+        double[] means = new double[p];
+        if (intercept) {
+            ParallelRange.forEach(p, 1, (from, to) -> {
+                for (int j = from; j < to; j++) means[j] = StatsAccumulator.of(columns[j]).mean();
+            });
+        }
+
+        double[] beta = new double[p];
+        double[][] inverse = new double[p][p];
+        double rss = solver == Solver.QR
+                ? solveQr(columns, y, means, yMean, beta, inverse)
+                : solveCholesky(columns, y, means, yMean, beta, inverse);
+        double tss = intercept ? ys.populationVariance() * n
+                : (ys.populationVariance() + ys.mean() * ys.mean()) * n;
+
+        int dof = n - params;
+        double sigma2 = rss / dof;
+        int o = intercept ? 1 : 0;
+        double[] coef = new double[params];
+        double[][] cov = new double[params][params];
+        for (int a = 0; a < p; a++) {
+            coef[o + a] = beta[a];
+            for (int b = 0; b < p; b++) cov[o + a][o + b] = sigma2 * inverse[a][b];
+        }
+        if (intercept) {
+            // b0 = ybar - xbar . beta, with its variance and covariances
+            double b0 = yMean, var0 = sigma2 / n;
+            for (int a = 0; a < p; a++) {
+                b0 -= beta[a] * means[a];
+                double c = 0;
+                for (int b = 0; b < p; b++) c -= means[b] * cov[1 + b][1 + a];
+                cov[0][1 + a] = c;
+                cov[1 + a][0] = c;
+                var0 -= means[a] * c;
+            }
+            coef[0] = b0;
+            cov[0][0] = var0;
+        }
+        double r2 = tss == 0 ? 1 : 1 - rss / tss;
+        double adjusted = 1 - (1 - r2) * (intercept ? n - 1 : n) / dof;
+        return new Result(coef, cov, r2, adjusted, Math.sqrt(sigma2), n);
+    }
+
+    /**
+     * Polynomial y = c0 + c1 x + ... + cd x^d. The powers are built on x
+     * standardized to zero mean and unit variance, which keeps the
+     * problem well conditioned, and the coefficients and their covariance
+     * are then mapped back to powers of x itself.
+     */
+    public static Result polynomial(double[] x, double[] y, int degree) {
+        if (degree < 1) throw new IllegalArgumentException("Grau inválido");
+        if (x.length != y.length) throw new IllegalArgumentException("Colunas devem ter o mesmo tamanho");
+        StatsAccumulator xs = StatsAccumulator.of(x);
+        double m = xs.count() > 0 ? xs.mean() : 0;
+        double s = xs.count() > 0 ? Math.sqrt(xs.populationVariance()) : 0;
+        if (s == 0) throw new ArithmeticException("Regressão indefinida: x constante");
+        int n = x.length;
+        double[][] powers = new double[degree][n];
+        ParallelRange.forEach(n, ROWS_PER_TASK, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                double z = (x[i] - m) / s, zk = z;
+                for (int k = 0; k < degree; k++) {
+                    powers[k][i] = zk;
+                    zk *= z;
+                }
+            }
+        });
+        Result scaled = fit(powers, y);
+
+        // z^k = sum over j of C(k, j) (-m)^(k-j) x^j / s^k, so c = T c' and C = T C' T^T
+        int d = degree + 1;
+        double[][] t = new double[d][d];
+        double[] binom = new double[d];
+        for (int k = 0; k < d; k++) {
+            for (int j = k; j > 0; j--) binom[j] += binom[j - 1];
+            binom[0] = 1;
+            double sk = Math.pow(s, k);
+            for (int j = 0; j <= k; j++) t[j][k] = binom[j] * Math.pow(-m, k - j) / sk;
+        }
+        double[] coef = new double[d];
+        double[][] tc = new double[d][d];
+        for (int j = 0; j < d; j++) {
+            for (int k = j; k < d; k++) {
+                coef[j] += t[j][k] * scaled.coefficients[k];
+                for (int l = 0; l < d; l++) tc[j][l] += t[j][k] * scaled.covariance[k][l];
+            }
+        }
+        double[][] cov = new double[d][d];
+        for (int j = 0; j < d; j++) {
+            for (int l = 0; l < d; l++) {
+                double c = 0;
+                for (int k = l; k < d; k++) c += tc[j][k] * t[l][k];
+                cov[j][l] = c;
+            }
+        }
+        return new Result(coef, cov, scaled.rSquared, scaled.adjustedRSquared, scaled.residualStdError, n);
+    }
+
+    // ========== SOLVERS ==========
+
+    /**
+     * Householder QR of the centered predictors. Fills the slopes and
+     * (R^T R)^-1 and returns the residual sum of squares.
+     */
+    private static double solveQr(double[][] columns, double[] y, double[] means, double yMean,
+                                  double[] beta, double[][] inverse) {
+        int n = y.length, p = columns.length;
+        // Centered working copy; the response rides along as column p
+        double[][] a = new double[p + 1][];
+        ParallelRange.forEach(p + 1, 1, (from, to) -> {
+            for (int j = from; j < to; j++) {
+                double[] src = j < p ? columns[j] : y;
+                double shift = j < p ? means[j] : yMean;
+                double[] dst = new double[n];
+                for (int i = 0; i < n; i++) dst[i] = src[i] - shift;
+                a[j] = dst;
+            }
+        });
+        double[] scale = new double[p];
+        for (int j = 0; j < p; j++) scale[j] = Math.sqrt(dot(a[j], a[j], 0, n));
+
+        double[] diag = new double[p];
+        int grain = n >= ROWS_PER_TASK ? 1 : p + 1;
+        for (int k = 0; k < p; k++) {
+            double[] v = a[k];
+            double norm = Math.sqrt(dot(v, v, k, n));
+            if (!(norm > COLLINEARITY_TOLERANCE * scale[k])) {
+                throw new ArithmeticException("Regressão indefinida: preditores colineares");
+            }
+            double alpha = v[k] > 0 ? -norm : norm;
+            v[k] -= alpha;
+            double vtv = dot(v, v, k, n);
+            diag[k] = alpha;
+            int row = k, first = k + 1;
+            ParallelRange.forEach(p + 1 - first, grain, (from, to) -> {
+                for (int j = first + from; j < first + to; j++) {
+                    double[] c = a[j];
+                    double f = 2 * dot(v, c, row, n) / vtv;
+                    for (int i = row; i < n; i++) c[i] -= f * v[i];
+                }
+            });
+        }
+
+        double[] qty = a[p];
+        for (int k = p - 1; k >= 0; k--) {
+            double sum = qty[k];
+            for (int j = k + 1; j < p; j++) sum -= a[j][k] * beta[j];
+            beta[k] = sum / diag[k];
+        }
+        double rss = dot(qty, qty, p, n);
+
+        // R^-1 (upper triangular), then (R^T R)^-1 = R^-1 R^-T
+        double[][] rinv = new double[p][p];
+        for (int j = 0; j < p; j++) {
+            rinv[j][j] = 1 / diag[j];
+            for (int i = j - 1; i >= 0; i--) {
+                double sum = 0;
+                for (int k = i + 1; k <= j; k++) sum += a[k][i] * rinv[k][j];
+                rinv[i][j] = -sum / diag[i];
+            }
+        }
+        for (int i = 0; i < p; i++) {
+            for (int j = i; j < p; j++) {
+                double sum = 0;
+                for (int k = j; k < p; k++) sum += rinv[i][k] * rinv[j][k];
+                inverse[i][j] = sum;
+                inverse[j][i] = sum;
+            }
+        }
+        return rss;
+    }
+
+    /**
+     * Cholesky on the centered cross products X^T X, X^T y and y^T y,
+     * summed per row block in parallel and combined in block order.
+     */
+    private static double solveCholesky(double[][] columns, double[] y, double[] means, double yMean,
+                                        double[] beta, double[][] inverse) {
+        int n = y.length, p = columns.length;
+        int blocks = Math.max(1, (n + ROWS_PER_TASK - 1) / ROWS_PER_TASK);
+        int width = p + 1;
+        double[][] partial = new double[blocks][];
+        ParallelRange.forEach(blocks, 1, (from, to) -> {
+            double[][] centered = new double[width][ROWS_PER_TASK];
+            for (int blk = from; blk < to; blk++) {
+                int start = blk * ROWS_PER_TASK, len = Math.min(ROWS_PER_TASK, n - start);
+                for (int j = 0; j < width; j++) {
+                    double[] src = j < p ? columns[j] : y;
+                    double shift = j < p ? means[j] : yMean;
+                    double[] dst = centered[j];
+                    for (int i = 0; i < len; i++) dst[i] = src[start + i] - shift;
+                }
+                // Upper triangle of the (p+1) x (p+1) cross products, y last
+                double[] sums = new double[width * width];
+                for (int r = 0; r < width; r++) {
+                    for (int c = r; c < width; c++) sums[r * width + c] = dot(centered[r], centered[c], 0, len);
+                }
+                partial[blk] = sums;
+            }
+        });
+        double[] g = partial[0];
+        for (int blk = 1; blk < blocks; blk++) {
+            double[] part = partial[blk];
+            for (int k = 0; k < g.length; k++) g[k] += part[k];
+        }
+
+        // G = L L^T
+        double[][] l = new double[p][p];
+        for (int j = 0; j < p; j++) {
+            double d = g[j * width + j];
+            for (int k = 0; k < j; k++) d -= l[j][k] * l[j][k];
+            if (!(d > COLLINEARITY_TOLERANCE * COLLINEARITY_TOLERANCE * g[j * width + j])) {
+                throw new ArithmeticException("Regressão indefinida: preditores colineares");
+            }
+            l[j][j] = Math.sqrt(d);
+            for (int i = j + 1; i < p; i++) {
+                double sum = g[j * width + i];
+                for (int k = 0; k < j; k++) sum -= l[i][k] * l[j][k];
+                l[i][j] = sum / l[j][j];
+            }
+        }
+        // L z = X^T y, then L^T beta = z
+        double[] z = new double[p];
+        for (int i = 0; i < p; i++) {
+            double sum = g[i * width + p];
+            for (int k = 0; k < i; k++) sum -= l[i][k] * z[k];
+            z[i] = sum / l[i][i];
+        }
+        for (int i = p - 1; i >= 0; i--) {
+            double sum = z[i];
+            for (int k = i + 1; k < p; k++) sum -= l[k][i] * beta[k];
+            beta[i] = sum / l[i][i];
+        }
+        // RSS = y^T y - z^T z
+        double rss = g[p * width + p];
+        for (int i = 0; i < p; i++) rss -= z[i] * z[i];
+
+        // G^-1 = L^-T L^-1
+        double[][] linv = new double[p][p];
+        for (int j = 0; j < p; j++) {
+            linv[j][j] = 1 / l[j][j];
+            for (int i = j + 1; i < p; i++) {
+                double sum = 0;
+                for (int k = j; k < i; k++) sum += l[i][k] * linv[k][j];
+                linv[i][j] = -sum / l[i][i];
+            }
+        }
+        for (int i = 0; i < p; i++) {
+            for (int j = i; j < p; j++) {
+                double sum = 0;
+                for (int k = j; k < p; k++) sum += linv[k][i] * linv[k][j];
+                inverse[i][j] = sum;
+                inverse[j][i] = sum;
+            }
+        }
+        return Math.max(rss, 0);
+    }
+
+    private static double dot(double[] a, double[] b, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) sum += a[i] * b[i];
+        return sum;
+    }
+}
@@ -0,0 +1,106 @@
+package com.vibecoding.calculator.engine;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Single-pass sums for the simple regression y = a + b x: means, centered
+ * sums of squares and the co-moment, updated Welford-style per pair and
+ * combined exactly across chunks, like {@link StatsAccumulator}.
+ */
+public class RegressionAccumulator {
+    private long count;
+    private double meanX;
+    private double meanY;
+    private double m2x;
+    private double m2y;
+    private double cxy;
+
+    /** Accumulator over paired arrays, chunks combined in order. */
+    public static RegressionAccumulator of(double[] x, double[] y) {
+        if (x.length != y.length) throw new ArithmeticException("Dados insuficientes");
+        return ParallelRange.reduce(x.length, StatsAccumulator.CHUNK,
+                (c, from, to) -> new RegressionAccumulator().addAll(x, y, from, to), RegressionAccumulator::combine);
+    }
+
+    /** Accumulator over the remaining values of two buffers, e.g. {@link Dataset} columns. */
+    public static RegressionAccumulator of(DoubleBuffer x, DoubleBuffer y) {
+        if (x.remaining() != y.remaining()) throw new ArithmeticException("Dados insuficientes");
+        int bx = x.position(), by = y.position();
+        return ParallelRange.reduce(x.remaining(), StatsAccumulator.CHUNK, (c, from, to) -> {
+            RegressionAccumulator part = new RegressionAccumulator();
+            for (int k = from; k < to; k++) part.add(x.get(bx + k), y.get(by + k));
+            return part;
+        }, RegressionAccumulator::combine);
+    }
+
+    public RegressionAccumulator add(double x, double y) {
+        long n = ++count;
+        double dx = x - meanX;
+        double dy = y - meanY;
+        meanX += dx / n;
+        meanY += dy / n;
+        m2x += dx * (x - meanX);
+        m2y += dy * (y - meanY);
+        cxy += dx * (y - meanY);
+        return this;
+    }
+
+    public RegressionAccumulator addAll(double[] x, double[] y, int from, int to) {
+        for (int k = from; k < to; k++) add(x[k], y[k]);
+        return this;
+    }
+
+    public RegressionAccumulator combine(RegressionAccumulator other) {
+        if (other.count == 0) return this;
+        if (count == 0) {
+            count = other.count;
+            meanX = other.meanX;
+            meanY = other.meanY;
+            m2x = other.m2x;
+            m2y = other.m2y;
+            cxy = other.cxy;
+            return this;
+        }
+        double na = count, nb = other.count, n = na + nb;
+        double dx = other.meanX - meanX, dy = other.meanY - meanY;
+        double w = na * nb / n;
+        m2x += other.m2x + dx * dx * w;
+        m2y += other.m2y + dy * dy * w;
+        cxy += other.cxy + dx * dy * w;
+        meanX += dx * nb / n;
+        meanY += dy * nb / n;
+        count += other.count;
+        return this;
+    }
+
+    public long count() { return count; }
+    public double meanX() { return meanX; }
+    public double meanY() { return meanY; }
+
+    /** Sample covariance. */
+    public double covariance() {
+        if (count < 2) throw new ArithmeticException("Dados insuficientes");
+        return cxy / (count - 1);
+    }
+
+    public double correlation() {
+        if (m2x == 0 || m2y == 0) throw new ArithmeticException("Correlação indefinida");
+        return cxy / Math.sqrt(m2x * m2y);
+    }
+
+    public double slope() {
+        if (count < 2 || m2x == 0) throw new ArithmeticException("Regressão indefinida");
+        return cxy / m2x;
+    }
+
+    public double intercept() {
+        return meanY - slope() * meanX;
+    }
+
+    /** Coefficient of determination; 1 when y is constant, as a perfect fit. */
+    public double rSquared() {
+        if (m2y == 0) return 1;
+        if (m2x == 0) throw new ArithmeticException("Regressão indefinida");
+        return cxy / m2x * (cxy / m2y);
+    }
+}
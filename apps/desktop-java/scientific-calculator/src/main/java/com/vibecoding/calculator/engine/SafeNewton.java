@@ -0,0 +1,142 @@
+package com.vibecoding.calculator.engine;
+
+/**
+ * Newton iteration kept inside a sign-changing bracket, falling back to
+ * bisection when a step leaves the bracket or does not halve the residual
+ * (rtsafe). Used by the solvers whose function is not a plain polynomial.
+ */
+final class SafeNewton {
+
+    @FunctionalInterface
+    interface Function {
+        /** Returns f(x) and stores f'(x) in {@code derivative[0]}. */
+        double apply(double x, double[] derivative);
+    }
+
+    /** Scan range of the rate solvers in u = ln(1 + r): r from -99.9% to 1000%. */
+    static final double U_MIN = Math.log(0.001);
+    static final double U_MAX = Math.log(11);
+    /** Grid intervals over [U_MIN, U_MAX] when looking for every root. */
+    static final int SCAN_STEPS = 1000;
+    static final int MAX_ITER = 200;
+
+    private SafeNewton() {}
+
+    /**
+     * Root of {@code f} in [lo, hi], which must bracket a sign change.
+     * Starts from {@code x0} if it lies inside; stops when a step is below
+     * {@code tol}. Returns NaN if the bracket is invalid or the iteration
+     * does not converge within {@code maxIter} steps.
+     */
+    static double solve(Function f, double lo, double hi, double x0, double tol, int maxIter) {
+        return solve(f, lo, hi, x0, tol, maxIter, new double[2]);
+    }
+
+    /**
+     * Same as above with a caller-owned buffer of length 2, for solving
+     * many problems without allocating: {@code work[0]} is the derivative
+     * slot and {@code work[1]} receives the number of iterations used,
+     * or -1 (with NaN returned) if the step never fell below {@code tol}.
+     */
+    static double solve(Function f, double lo, double hi, double x0, double tol, int maxIter, double[] work) {
+        double[] d = work;
+        d[1] = 0;
+        double flo = f.apply(lo, d);
+        double fhi = f.apply(hi, d);
+        if (flo == 0) return lo;
+        if (fhi == 0) return hi;
+        if (Double.isNaN(flo) || Double.isNaN(fhi) || (flo < 0) == (fhi < 0)) {
+            d[1] = -1;
+            return Double.NaN;
+        }
+        double neg = flo < 0 ? lo : hi;
+        double pos = flo < 0 ? hi : lo;
+        double x = x0 > Math.min(lo, hi) && x0 < Math.max(lo, hi) ? x0 : 0.5 * (lo + hi);
+        double dxOld = Math.abs(hi - lo), dx = dxOld;
+        for (int iter = 0; iter < maxIter; iter++) {
+            double fx = f.apply(x, d);
+            double df = d[0];
+            d[1] = iter + 1;
+            if (fx == 0) return x;
+            if (fx < 0) neg = x; else pos = x;
+
+            if (((x - pos) * df - fx) * ((x - neg) * df - fx) > 0 || Math.abs(2 * fx) > Math.abs(dxOld * df)) {
+                dxOld = dx;
+                dx = 0.5 * (pos - neg);
+                x = neg + dx;
+            } else {
+                dxOld = dx;
+                dx = fx / df;
+                x -= dx;
+            }
+            if (Math.abs(dx) < tol) return x;
+        }
+        d[1] = -1;
+        return Double.NaN;
+    }
+
+    /**
+     * Root of a function of the rate r near {@code r0}: widens a bracket
+     * with {@link #widenBracket} and refines it. NaN if no bracket is found
+     * or the iteration does not converge; {@code work[1]} then tells the
+     * two apart, 0 for no bracket and -1 for no convergence.
+     */
+    static double solveNear(Function f, double r0, double tol, double[] work) {
+        if (!widenBracket(f, r0, work)) {
+            work[1] = 0;
+            return Double.NaN;
+        }
+        return solve(f, work[0], work[1], r0, tol, MAX_ITER, work);
+    }
+
+    /**
+     * Looks for a sign change of f(r) on [e^(u0 - s) - 1, e^(u0 + s) - 1]
+     * with u0 = ln(1 + r0), doubling s from 0.05 up to 32: symmetric in
+     * ln(1 + r), and the small first steps keep v^n from overflowing on long
+     * series. On success stores the bracket in {@code work[0..1]} and
+     * returns true; returns false once f is NaN or s runs out.
+     */
+    static boolean widenBracket(Function f, double r0, double[] work) {
+        double u0 = Math.log1p(r0);
+        for (double step = 0.05; step < 64; step *= 2) {
+            double lo = Math.max(Math.expm1(u0 - step), -1 + 1e-12);
+            double hi = Math.expm1(u0 + step);
+            double flo = f.apply(lo, work), fhi = f.apply(hi, work);
+            if (Double.isNaN(flo) || Double.isNaN(fhi)) return false;
+            if ((flo < 0) != (fhi < 0) || flo == 0 || fhi == 0) {
+                work[0] = lo;
+                work[1] = hi;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Every root of f(r) found by scanning r = e^u - 1 at {@code steps}
+     * even intervals of u over [uLo, uHi], which spreads points evenly
+     * across small and large rates, and refining each sign change. Stores
+     * up to {@code roots.length} roots, ascending, and returns how many;
+     * a sign change whose refinement does not converge is left out.
+     * {@code work} is a buffer of length 2 as for {@link #solve}.
+     */
+    static int scanRoots(Function f, double uLo, double uHi, int steps, double tol, double[] roots, double[] work) {
+        int found = 0;
+        double prevR = Math.expm1(uLo);
+        double prevF = f.apply(prevR, work);
+        for (int k = 1; k <= steps && found < roots.length; k++) {
+            double r = Math.expm1(uLo + (uHi - uLo) * k / steps);
+            double fr = f.apply(r, work);
+            if (prevF == 0) {
+                roots[found++] = prevR;
+            } else if ((fr < 0) != (prevF < 0) && fr != 0) {
+                double root = solve(f, prevR, r, 0.5 * (prevR + r), tol, MAX_ITER, work);
+                if (!Double.isNaN(root)) roots[found++] = root;
+            }
+            prevR = r;
+            prevF = fr;
+        }
+        if (found < roots.length && prevF == 0) roots[found++] = prevR;
+        return found;
+    }
+}
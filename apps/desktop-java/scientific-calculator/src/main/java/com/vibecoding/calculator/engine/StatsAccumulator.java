@@ -0,0 +1,164 @@
+package com.vibecoding.calculator.engine;
+
+import java.nio.DoubleBuffer;
+import java.util.PrimitiveIterator;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+
+/**
+ * Single-pass summary statistics: count, mean, variance, skewness,
+ * kurtosis, min and max. Values are added one at a time with Welford's
+ * update (extended to third and fourth moments), so the data never has to
+ * be in memory; accumulators built over separate chunks combine with the
+ * exact pairwise formulas of Chan and Pébay.
+ *
+ * <p>Works directly as a {@link DoubleConsumer} and with
+ * {@code DoubleStream.collect(StatsAccumulator::new, StatsAccumulator::add,
+ * StatsAccumulator::combine)}, parallel streams included.</p>
+ */
+public class StatsAccumulator implements DoubleConsumer {
+    /** Values per chunk when summarizing an array in parallel. */
+    static final int CHUNK = 1 << 16;
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double m3;
+    private double m4;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /** Summary of a whole array, chunks combined in order so the result does not depend on threads. */
+    public static StatsAccumulator of(double[] values) {
+        return of(values, 0, values.length);
+    }
+
+    public static StatsAccumulator of(double[] values, int from, int to) {
+        return ParallelRange.reduce(to - from, CHUNK,
+                (c, a, b) -> new StatsAccumulator().addAll(values, from + a, from + b), StatsAccumulator::combine);
+    }
+
+    /**
+     * Summary of the remaining values of a buffer, such as a memory-mapped
+     * {@link Dataset} column. Reads are absolute, so the position is left alone.
+     */
+    public static StatsAccumulator of(DoubleBuffer values) {
+        int base = values.position();
+        return ParallelRange.reduce(values.remaining(), CHUNK,
+                (c, a, b) -> new StatsAccumulator().addAll(values, base + a, base + b), StatsAccumulator::combine);
+    }
+
+    public static StatsAccumulator of(DoubleStream values) {
+        return values.collect(StatsAccumulator::new, StatsAccumulator::add, StatsAccumulator::combine);
+    }
+
+    @Override
+    public void accept(double value) {
+        add(value);
+    }
+
+    public StatsAccumulator add(double x) {
+        long n1 = count;
+        long n = ++count;
+        double delta = x - mean;
+        double dn = delta / n;
+        double dn2 = dn * dn;
+        double term1 = delta * dn * n1;
+        mean += dn;
+        m4 += term1 * dn2 * ((double) n * n - 3.0 * n + 3) + 6 * dn2 * m2 - 4 * dn * m3;
+        m3 += term1 * dn * (n - 2) - 3 * dn * m2;
+        m2 += term1;
+        if (x < min) min = x;
+        if (x > max) max = x;
+        return this;
+    }
+
+    public StatsAccumulator addAll(double[] values, int from, int to) {
+        for (int k = from; k < to; k++) add(values[k]);
+        return this;
+    }
+
+    /** Adds buffer entries [from, to) by absolute index. */
+    public StatsAccumulator addAll(DoubleBuffer values, int from, int to) {
+        for (int k = from; k < to; k++) add(values.get(k));
+        return this;
+    }
+
+    public StatsAccumulator addAll(PrimitiveIterator.OfDouble values) {
+        while (values.hasNext()) add(values.nextDouble());
+        return this;
+    }
+
+    /** Folds {@code other} into this accumulator, as if its values had been added here. */
+    public StatsAccumulator combine(StatsAccumulator other) {
+        if (other.count == 0) return this;
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            m3 = other.m3;
+            m4 = other.m4;
+            min = other.min;
+            max = other.max;
+            return this;
+        }
+        double na = count, nb = other.count, n = na + nb;
+        double delta = other.mean - mean;
+        double d2 = delta * delta;
+        double newM2 = m2 + other.m2 + d2 * na * nb / n;
+        double newM3 = m3 + other.m3 + d2 * delta * na * nb * (na - nb) / (n * n)
+                + 3 * delta * (na * other.m2 - nb * m2) / n;
+        double newM4 = m4 + other.m4 + d2 * d2 * na * nb * (na * na - na * nb + nb * nb) / (n * n * n)
+                + 6 * d2 * (na * na * other.m2 + nb * nb * m2) / (n * n)
+                + 4 * delta * (na * other.m3 - nb * m3) / n;
+        mean += delta * nb / n;
+        m2 = newM2;
+        m3 = newM3;
+        m4 = newM4;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    public long count() { return count; }
+    public double min() { return min; }
+    public double max() { return max; }
+
+    public double mean() {
+        if (count == 0) throw new ArithmeticException("Sem dados");
+        return mean;
+    }
+
+    public double sum() {
+        return mean * count;
+    }
+
+    /** Sample variance (n - 1 denominator). */
+    public double variance() {
+        if (count < 2) throw new ArithmeticException("Dados insuficientes");
+        return m2 / (count - 1);
+    }
+
+    public double populationVariance() {
+        if (count == 0) throw new ArithmeticException("Sem dados");
+        return m2 / count;
+    }
+
+    /** Sample standard deviation. */
+    public double stdDev() {
+        return Math.sqrt(variance());
+    }
+
+    /** Population skewness g1 = sqrt(n) M3 / M2^1.5. */
+    public double skewness() {
+        if (count < 2 || m2 == 0) throw new ArithmeticException("Dados insuficientes");
+        return Math.sqrt(count) * m3 / Math.pow(m2, 1.5);
+    }
+
+    /** Population excess kurtosis g2 = n M4 / M2^2 - 3. */
+    public double kurtosis() {
+        if (count < 2 || m2 == 0) throw new ArithmeticException("Dados insuficientes");
+        return count * m4 / (m2 * m2) - 3;
+    }
+}
@@ -0,0 +1,317 @@
+package com.vibecoding.calculator.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Zero-coupon yield curve. Pillars are continuously compounded zero
+ * rates, interpolated linearly or with a monotone cubic (Fritsch–Carlson),
+ * and flat outside the pillars. Discount factors are tabulated once on a
+ * daily grid up to the last pillar, so {@link #discount} is an index and
+ * one linear blend instead of an exp or pow per cash flow.
+ */
+public class YieldCurve {
+    public enum Interpolation { LINEAR, MONOTONE_CUBIC }
+
+    /** Grid points per year for the discount-factor table. */
+    static final int GRID_PER_YEAR = 365;
+
+    private final double[] times;
+    private final double[] zeros;
+    private final double[] slopes;
+    private final Interpolation interpolation;
+    private final double[] grid;
+
+    /**
+     * @param times     pillar maturities in years, ascending and positive
+     * @param zeroRates continuously compounded zero rates, in percent
+     */
+    public YieldCurve(double[] times, double[] zeroRates, Interpolation interpolation) {
+        if (times.length == 0 || times.length != zeroRates.length) {
+            throw new IllegalArgumentException("Vértices e taxas devem ter o mesmo tamanho");
+        }
+        for (int k = 0; k < times.length; k++) {
+            if (!(times[k] > 0) || (k > 0 && times[k] <= times[k - 1])) {
+                throw new IllegalArgumentException("Vértices devem ser positivos e crescentes");
+            }
+        }
+        this.times = times.clone();
+        this.zeros = new double[zeroRates.length];
+        for (int k = 0; k < zeros.length; k++) zeros[k] = zeroRates[k] / 100.0;
+        this.interpolation = interpolation;
+        this.slopes = interpolation == Interpolation.MONOTONE_CUBIC ? fritschCarlson(this.times, zeros) : null;
+
+        int points = (int) Math.ceil(this.times[this.times.length - 1] * GRID_PER_YEAR) + 1;
+        this.grid = new double[points];
+        for (int k = 0; k < points; k++) {
+            double t = (double) k / GRID_PER_YEAR;
+            grid[k] = Math.exp(-zero(t) * t);
+        }
+    }
+
+    public Interpolation getInterpolation() { return interpolation; }
+    public double[] getTimes() { return times.clone(); }
+
+    /** Zero rate (percent, continuous) at t years. */
+    public double zeroRate(double t) { return zero(t) * 100; }
+
+    /** Discount factor for t years, from the precomputed grid. */
+    public double discount(double t) {
+        if (t <= 0) return 1;
+        double x = t * GRID_PER_YEAR;
+        int k = (int) x;
+        if (k + 1 < grid.length) return grid[k] + (x - k) * (grid[k + 1] - grid[k]);
+        return Math.exp(-zeros[zeros.length - 1] * t);
+    }
+
+    /** Discount factors for many times at once. */
+    public void discount(double[] t, double[] out) {
+        for (int k = 0; k < t.length; k++) out[k] = discount(t[k]);
+    }
+
+    /** Simple forward rate (percent per year) between t1 and t2 years. */
+    public double forwardRate(double t1, double t2) {
+        if (t2 <= t1) throw new IllegalArgumentException("Prazo final deve ser maior que o inicial");
+        return (discount(t1) / discount(t2) - 1) / (t2 - t1) * 100;
+    }
+
+    /**
+     * Sum of discount factors of n payments spaced 1 / periodsPerYear apart,
+     * the first at one period (or at once in BEGIN mode).
+     */
+    public double annuityFactor(int n, int periodsPerYear, boolean beginMode) {
+        double sum = 0;
+        int first = beginMode ? 0 : 1;
+        for (int k = first; k < n + first; k++) sum += discount((double) k / periodsPerYear);
+        return sum;
+    }
+
+    /** Zero rate (fraction) at t, from the pillars. */
+    double zero(double t) {
+        return zero(times, zeros, slopes, times.length, t);
+    }
+
+    /**
+     * Zero rate at t from the first n pillars, flat outside them; linear
+     * between pillars when {@code slopes} is null, else cubic Hermite.
+     */
+    private static double zero(double[] times, double[] zeros, double[] slopes, int n, double t) {
+        if (t <= times[0]) return zeros[0];
+        if (t >= times[n - 1]) return zeros[n - 1];
+        int hi = Arrays.binarySearch(times, 0, n, t);
+        if (hi >= 0) return zeros[hi];
+        hi = -hi - 1;
+        int lo = hi - 1;
+        double h = times[hi] - times[lo];
+        double s = (t - times[lo]) / h;
+        if (slopes == null) return zeros[lo] + s * (zeros[hi] - zeros[lo]);
+        return hermite(s, h, zeros[lo], zeros[hi], slopes[lo], slopes[hi]);
+    }
+
+    /** Cubic Hermite at s in [0, 1] of an interval of width h with end values z0, z1 and slopes m0, m1. */
+    private static double hermite(double s, double h, double z0, double z1, double m0, double m1) {
+        double s2 = s * s, s3 = s2 * s;
+        return (2 * s3 - 3 * s2 + 1) * z0 + (s3 - 2 * s2 + s) * h * m0
+                + (-2 * s3 + 3 * s2) * z1 + (s3 - s2) * h * m1;
+    }
+
+    /** Fritsch–Carlson slopes: no overshoot between pillars, monotone where the data is. */
+    private static double[] fritschCarlson(double[] x, double[] y) {
+        int n = x.length;
+        double[] m = new double[n];
+        if (n < 2) return m;
+        double[] delta = new double[n - 1];
+        for (int k = 0; k < n - 1; k++) delta[k] = (y[k + 1] - y[k]) / (x[k + 1] - x[k]);
+        m[0] = delta[0];
+        m[n - 1] = delta[n - 2];
+        for (int k = 1; k < n - 1; k++) {
+            m[k] = delta[k - 1] * delta[k] <= 0 ? 0 : (delta[k - 1] + delta[k]) / 2;
+        }
+        for (int k = 0; k < n - 1; k++) {
+            if (delta[k] == 0) {
+                m[k] = 0;
+                m[k + 1] = 0;
+                continue;
+            }
+            double a = m[k] / delta[k], b = m[k + 1] / delta[k];
+            double r = a * a + b * b;
+            if (r > 9) {
+                double tau = 3 / Math.sqrt(r);
+                m[k] = tau * a * delta[k];
+                m[k + 1] = tau * b * delta[k];
+            }
+        }
+        return m;
+    }
+
+    // ========== BOOTSTRAP ==========
+
+    /**
+     * Builds a curve from market quotes, shortest maturity first. Each
+     * quote adds one pillar whose zero rate reprices it under the requested
+     * interpolation. Monotone cubic slopes depend on the pillars after each
+     * interval, so that case repeats the pass with the slopes of the
+     * previous one until the pillars settle.
+     */
+    public static class Bootstrapper {
+        private static final int MAX_PASSES = 100;
+        /** Largest change of a pillar (fraction) accepted as settled. */
+        private static final double PASS_TOLERANCE = 1e-13;
+
+        private enum Kind { DEPOSIT, FRA, BOND }
+
+        /** One market quote; rates and prices are fractions, not percent. */
+        private static final class Quote {
+            final Kind kind;
+            final double end;
+            final double rate;
+            /** FRA start in years; unused otherwise. */
+            final double start;
+            /** Bond coupons per year; unused otherwise. */
+            final int frequency;
+            /** Bond price per unit face; unused otherwise. */
+            final double price;
+
+            Quote(Kind kind, double end, double rate, double start, int frequency, double price) {
+                this.kind = kind;
+                this.end = end;
+                this.rate = rate;
+                this.start = start;
+                this.frequency = frequency;
+                this.price = price;
+            }
+        }
+
+        private final List<Quote> quotes = new ArrayList<>();
+
+        /** Deposit with simple interest: D(t) = 1 / (1 + r t). */
+        public Bootstrapper addDeposit(double years, double ratePercent) {
+            quotes.add(new Quote(Kind.DEPOSIT, years, ratePercent / 100.0, 0, 0, 0));
+            return this;
+        }
+
+        /** FRA from {@code start} to {@code end} years: D(end) = D(start) / (1 + r (end - start)). */
+        public Bootstrapper addFra(double start, double end, double ratePercent) {
+            if (end <= start) throw new IllegalArgumentException("FRA inválido");
+            quotes.add(new Quote(Kind.FRA, end, ratePercent / 100.0, start, 0, 0));
+            return this;
+        }
+
+        /**
+         * Bullet bond quoted at a coupon date: price per 100 face, annual
+         * coupon rate in percent, coupons every 1 / frequency years back
+         * from maturity.
+         */
+        public Bootstrapper addBond(double years, double couponRate, int frequency, double price) {
+            quotes.add(new Quote(Kind.BOND, years, couponRate / 100.0, 0, frequency, price / 100.0));
+            return this;
+        }
+
+        public YieldCurve build(Interpolation interpolation) {
+            if (quotes.isEmpty()) throw new IllegalStateException("Nenhuma cotação");
+            Quote[] sorted = quotes.toArray(new Quote[0]);
+            Arrays.sort(sorted, (a, b) -> Double.compare(a.end, b.end));
+            int n = sorted.length;
+            double[] t = new double[n];
+            for (int k = 0; k < n; k++) {
+                t[k] = sorted[k].end;
+                if (k > 0 && t[k] <= t[k - 1]) throw new IllegalArgumentException("Vencimentos repetidos");
+            }
+            double[] z = new double[n];
+            bootstrap(sorted, t, z, null);
+            if (interpolation == Interpolation.MONOTONE_CUBIC && n > 1) {
+                double[] previous = new double[n];
+                for (int pass = 1; ; pass++) {
+                    if (pass > MAX_PASSES) throw new ArithmeticException("Bootstrap cúbico não convergiu");
+                    System.arraycopy(z, 0, previous, 0, n);
+                    bootstrap(sorted, t, z, fritschCarlson(t, previous));
+                    double change = 0;
+                    for (int k = 0; k < n; k++) change = Math.max(change, Math.abs(z[k] - previous[k]));
+                    if (change < PASS_TOLERANCE) break;
+                }
+            }
+            for (int k = 0; k < n; k++) z[k] *= 100;
+            return new YieldCurve(t, z, interpolation);
+        }
+
+        /**
+         * One pass over the quotes, solving each pillar in turn. Rates
+         * between pillars are linear when {@code slopes} is null, else
+         * cubic Hermite with those slopes held fixed.
+         */
+        private static void bootstrap(Quote[] quotes, double[] t, double[] z, double[] slopes) {
+            for (int k = 0; k < quotes.length; k++) {
+                Quote q = quotes[k];
+                double end = t[k];
+                switch (q.kind) {
+                    case DEPOSIT:
+                        z[k] = Math.log1p(q.rate * end) / end;
+                        break;
+                    case FRA: {
+                        double start = q.start;
+                        if (k == 0 || start > t[k - 1]) {
+                            throw new IllegalArgumentException("FRA começa após o último vértice");
+                        }
+                        double dStart = Math.exp(-zero(t, z, slopes, k, start) * start);
+                        z[k] = -Math.log(dStart / (1 + q.rate * (end - start))) / end;
+                        break;
+                    }
+                    case BOND:
+                        z[k] = solveBond(t, z, slopes, k, q.rate, q.frequency, q.price);
+                        break;
+                }
+            }
+        }
+
+        /** Zero rate at pillar k that reprices a bond (per unit face). */
+        private static double solveBond(double[] t, double[] z, double[] slopes, int k,
+                                        double coupon, int frequency, double price) {
+            double maturity = t[k];
+            double last = k > 0 ? t[k - 1] : 0;
+            double c = coupon / frequency;
+            int count = (int) Math.floor(maturity * frequency + 1e-9);
+            SafeNewton.Function f = (zk, d) -> {
+                double pv = 0, dpv = 0;
+                for (int j = 0; j < count; j++) {
+                    double s = maturity - (double) j / frequency;
+                    double cf = j == 0 ? 1 + c : c;
+                    double zs, weight;
+                    if (k == 0) {
+                        weight = 1;
+                        zs = zk;
+                    } else if (s > last) {
+                        // Between the previous pillar and this one, the rate moves with zk
+                        double u = (s - last) / (maturity - last);
+                        if (slopes == null) {
+                            weight = u;
+                            zs = z[k - 1] + u * (zk - z[k - 1]);
+                        } else {
+                            weight = u * u * (3 - 2 * u);
+                            zs = hermite(u, maturity - last, z[k - 1], zk, slopes[k - 1], slopes[k]);
+                        }
+                    } else {
+                        weight = 0;
+                        zs = zero(t, z, slopes, k, s);
+                    }
+                    double df = cf * Math.exp(-zs * s);
+                    pv += df;
+                    dpv -= weight * s * df;
+                }
+                d[0] = dpv;
+                return pv - price;
+            };
+            double guess = k > 0 ? z[k - 1] : coupon;
+            if (!(guess > -0.9)) guess = 0;
+            // The price falls as zk rises, so the bracket widens around the guess until it straddles the quote
+            double[] work = new double[2];
+            double r = SafeNewton.solveNear(f, guess, 1e-14, work);
+            if (Double.isNaN(r)) {
+                throw new ArithmeticException(work[1] == 0
+                        ? "Preço do título de " + maturity + " anos fora do alcance do bootstrap"
+                        : "Bootstrap não convergiu no vértice " + maturity);
+            }
+            return r;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.vibecoding.calculator.graph;
+
+import com.vibecoding.calculator.engine.Dataset;
+
+import java.awt.*;
+import java.awt.geom.GeneralPath;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measured (x, y) data drawn on {@link GraphPanel} next to the functions.
+ * Points live in primitive column arrays sorted by x. A min/max pyramid
+ * over y lets each frame decimate the visible range to first/min/max/last
+ * per pixel column (M4), so drawing cost depends on the panel width, not
+ * on the number of points.
+ */
+public class DataSeries {
+    /** Points per level-0 pyramid bucket; level L buckets hold BASE << L points. */
+    private static final int BASE = 64;
+    /** Below this many visible points per pixel the raw polyline is drawn. */
+    private static final int RAW_POINTS_PER_PIXEL = 4;
+
+    private final String name;
+    private final double[] xs;
+    private final double[] ys;
+    private final int size;
+    private final double[][] minY;
+    private final double[][] maxY;
+
+    public Color color;
+    public boolean visible = true;
+
+    /**
+     * Takes ownership of the first {@code size} entries of both arrays;
+     * they are sorted by x in place if needed.
+     */
+    public DataSeries(String name, double[] xs, double[] ys, int size) {
+        if (size > xs.length || size > ys.length) throw new IllegalArgumentException("Tamanho inválido");
+        this.name = name;
+        this.xs = xs;
+        this.ys = ys;
+        this.size = size;
+        if (!isSorted()) sortByX(0, size - 1);
+
+        int levels = 0;
+        for (long span = BASE; span <= size; span <<= 1) levels++;
+        minY = new double[levels][];
+        maxY = new double[levels][];
+        buildPyramid();
+    }
+
+    /**
+     * Loads a CSV with one point per line. Fields may be separated by comma,
+     * semicolon, tab or spaces, detected from the first line; a first line
+     * that does not start with a number is a header. With one column x is
+     * the row index. The file is parsed in parallel chunks by
+     * {@link Dataset#readCsv(Path, char, boolean)}; a malformed row fails
+     * the load with its line number rather than being skipped.
+     */
+    public static DataSeries loadCsv(Path file) throws IOException {
+        String first;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            first = in.readLine();
+        }
+        if (first == null) throw new IOException("Nenhum ponto encontrado em " + file.getFileName());
+        char delimiter = delimiter(first);
+        Dataset data;
+        try {
+            data = Dataset.readCsv(file, delimiter, isHeader(first, delimiter));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        int n = data.rows();
+        if (n == 0 || data.columnCount() == 0) throw new IOException("Nenhum ponto encontrado em " + file.getFileName());
+        double[] xs, ys;
+        if (data.columnCount() == 1) {
+            ys = data.array(0);
+            xs = new double[n];
+            for (int i = 0; i < n; i++) xs[i] = i;
+        } else {
+            xs = data.array(0);
+            ys = data.array(1);
+            for (int i = 0; i < n; i++) {
+                if (Double.isNaN(xs[i])) throw new IOException("Ponto " + (i + 1) + " sem valor de x");
+            }
+        }
+        return new DataSeries(file.getFileName().toString(), xs, ys, n);
+    }
+
+    private static char delimiter(String line) {
+        for (char c : new char[]{',', ';', '\t'}) {
+            if (line.indexOf(c) >= 0) return c;
+        }
+        return ' ';
+    }
+
+    private static boolean isHeader(String line, char delimiter) {
+        String text = line.strip();
+        if (text.startsWith("\uFEFF")) text = text.substring(1).strip();
+        int end = delimiter == ' ' ? text.indexOf(' ') : text.indexOf(delimiter);
+        String field = (end < 0 ? text : text.substring(0, end)).strip();
+        if (field.length() >= 2 && field.startsWith("\"") && field.endsWith("\"")) field = field.substring(1, field.length() - 1);
+        if (field.isEmpty()) return false;
+        try {
+            Double.parseDouble(field);
+            return false;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public String getName() { return name; }
+    public int size() { return size; }
+    public double minX() { return xs[0]; }
+    public double maxX() { return xs[size - 1]; }
+
+    public double minY() {
+        double[] mm = new double[2];
+        rangeMinMax(0, size, mm);
+        return mm[0];
+    }
+
+    public double maxY() {
+        double[] mm = new double[2];
+        rangeMinMax(0, size, mm);
+        return mm[1];
+    }
+
+    /**
+     * Builds the path for the viewport onto a {@code w}×{@code h} pixel
+     * area, touching at most a few points per pixel column.
+     */
+    GeneralPath buildPath(double xMin, double xMax, double yMin, double yMax, int w, int h) {
+        GeneralPath path = new GeneralPath();
+        if (size == 0 || w <= 0) return path;
+
+        // One extra point on each side so lines run to the panel edges
+        int from = Math.max(lowerBound(xMin) - 1, 0);
+        int to = Math.min(lowerBound(xMax) + 1, size);
+        if (to - from <= (long) w * RAW_POINTS_PER_PIXEL) {
+            boolean started = false;
+            for (int i = from; i < to; i++) {
+                double y = ys[i];
+                if (Double.isNaN(y)) { started = false; continue; }
+                float px = (float) ((xs[i] - xMin) / (xMax - xMin) * w);
+                float py = (float) ((yMax - y) / (yMax - yMin) * h);
+                if (started) path.lineTo(px, py); else path.moveTo(px, py);
+                started = true;
+            }
+            return path;
+        }
+
+        double[] mm = new double[2];
+        boolean started = false;
+        int i0 = from;
+        for (int col = 0; col <= w && i0 < to; col++) {
+            int i1 = col == w ? to : Math.min(lowerBound(xMin + (xMax - xMin) * (col + 1) / w), to);
+            if (i1 <= i0) continue;
+            rangeMinMax(i0, i1, mm);
+            if (!Double.isNaN(mm[0])) {
+                float px = col;
+                float lo = (float) ((yMax - mm[0]) / (yMax - yMin) * h);
+                float hi = (float) ((yMax - mm[1]) / (yMax - yMin) * h);
+                float first = Double.isNaN(ys[i0]) ? lo : (float) ((yMax - ys[i0]) / (yMax - yMin) * h);
+                float last = Double.isNaN(ys[i1 - 1]) ? hi : (float) ((yMax - ys[i1 - 1]) / (yMax - yMin) * h);
+                if (started) path.lineTo(px, first); else path.moveTo(px, first);
+                path.lineTo(px, lo);
+                path.lineTo(px, hi);
+                path.lineTo(px, last);
+                started = true;
+            }
+            i0 = i1;
+        }
+        return path;
+    }
+
+    /** Index of the first point with x >= value. */
+    private int lowerBound(double value) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (xs[mid] < value) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Min and max y over [from, to), using the largest aligned pyramid buckets. */
+    private void rangeMinMax(int from, int to, double[] out) {
+        double mn = Double.POSITIVE_INFINITY, mx = Double.NEGATIVE_INFINITY;
+        int i = from;
+        while (i < to) {
+            if (i % BASE != 0 || i + BASE > to) {
+                double y = ys[i++];
+                if (y < mn) mn = y;
+                if (y > mx) mx = y;
+                continue;
+            }
+            int level = 0;
+            while (level + 1 < minY.length && i % (BASE << (level + 1)) == 0 && i + (BASE << (level + 1)) <= to) {
+                level++;
+            }
+            int bucket = i / (BASE << level);
+            mn = Math.min(mn, minY[level][bucket]);
+            mx = Math.max(mx, maxY[level][bucket]);
+            i += BASE << level;
+        }
+        out[0] = mn == Double.POSITIVE_INFINITY ? Double.NaN : mn;
+        out[1] = mx == Double.NEGATIVE_INFINITY ? Double.NaN : mx;
+    }
+
+    private void buildPyramid() {
+        if (minY.length == 0) return;
+        int buckets = size / BASE;
+        minY[0] = new double[buckets];
+        maxY[0] = new double[buckets];
+        for (int b = 0; b < buckets; b++) {
+            int start = b * BASE;
+            minY[0][b] = rawMin(start, start + BASE);
+            maxY[0][b] = rawMax(start, start + BASE);
+        }
+        for (int level = 1; level < minY.length; level++) {
+            double[] pMin = minY[level - 1], pMax = maxY[level - 1];
+            int n = pMin.length / 2;
+            minY[level] = new double[n];
+            maxY[level] = new double[n];
+            for (int b = 0; b < n; b++) {
+                minY[level][b] = Math.min(pMin[2 * b], pMin[2 * b + 1]);
+                maxY[level][b] = Math.max(pMax[2 * b], pMax[2 * b + 1]);
+            }
+        }
+    }
+
+    // NaN-skipping min/max, so gaps in the data do not poison whole buckets
+    private double rawMin(int from, int to) {
+        double m = Double.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) if (ys[i] < m) m = ys[i];
+        return m;
+    }
+
+    private double rawMax(int from, int to) {
+        double m = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) if (ys[i] > m) m = ys[i];
+        return m;
+    }
+
+    private boolean isSorted() {
+        for (int i = 1; i < size; i++) if (xs[i] < xs[i - 1]) return false;
+        return true;
+    }
+
+    /** Quicksort on the x column carrying y along, without boxing. */
+    private void sortByX(int lo, int hi) {
+        while (hi - lo > 16) {
+            int mid = (lo + hi) >>> 1;
+            if (xs[mid] < xs[lo]) swap(mid, lo);
+            if (xs[hi] < xs[lo]) swap(hi, lo);
+            if (xs[hi] < xs[mid]) swap(hi, mid);
+            double pivot = xs[mid];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (xs[i] < pivot) i++;
+                while (xs[j] > pivot) j--;
+                if (i <= j) swap(i++, j--);
+            }
+            // Recurse into the smaller half to bound stack depth
+            if (j - lo < hi - i) { sortByX(lo, j); lo = i; }
+            else { sortByX(i, hi); hi = j; }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && xs[j] < xs[j - 1]; j--) swap(j, j - 1);
+        }
+    }
+
+    private void swap(int a, int b) {
+        double tx = xs[a]; xs[a] = xs[b]; xs[b] = tx;
+        double ty = ys[a]; ys[a] = ys[b]; ys[b] = ty;
+    }
+}
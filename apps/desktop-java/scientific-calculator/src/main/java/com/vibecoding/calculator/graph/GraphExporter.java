@@ -0,0 +1,67 @@
+package com.vibecoding.calculator.graph;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+/**
+ * Writes a {@link GraphRenderer} scene to PNG or SVG without a window, so
+ * it works with {@code -Djava.awt.headless=true} in batch jobs.
+ */
+public final class GraphExporter {
+    private static final int TILE = 512;
+
+    private GraphExporter() {}
+
+    /** Picks PNG or SVG from the file extension. */
+    public static void export(GraphRenderer renderer, int width, int height, Path file) throws IOException {
+        if (file.getFileName().toString().toLowerCase().endsWith(".svg")) {
+            writeSvg(renderer, width, height, file);
+        } else {
+            writePng(renderer, width, height, file);
+        }
+    }
+
+    public static void writePng(GraphRenderer renderer, int width, int height, Path file) throws IOException {
+        ImageIO.write(renderImage(renderer, width, height), "png", file.toFile());
+    }
+
+    /**
+     * Renders into an image in {@value #TILE}-pixel tiles on the common
+     * ForkJoin pool. Each tile draws into its own buffer with a clip, so
+     * functions are only sampled over the tile's columns.
+     */
+    public static BufferedImage renderImage(GraphRenderer renderer, int width, int height) {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("Dimensões inválidas");
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int cols = (width + TILE - 1) / TILE;
+        int rows = (height + TILE - 1) / TILE;
+        IntStream.range(0, cols * rows).parallel().forEach(t -> {
+            int tx = (t % cols) * TILE, ty = (t / cols) * TILE;
+            int tw = Math.min(TILE, width - tx), th = Math.min(TILE, height - ty);
+            BufferedImage tile = new BufferedImage(tw, th, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = tile.createGraphics();
+            g2.setColor(GraphRenderer.BACKGROUND);
+            g2.fillRect(0, 0, tw, th);
+            g2.translate(-tx, -ty);
+            g2.setClip(tx, ty, tw, th);
+            renderer.render(g2, width, height);
+            g2.dispose();
+            // Tiles cover disjoint regions of the raster
+            image.getRaster().setDataElements(tx, ty, tile.getRaster());
+        });
+        return image;
+    }
+
+    public static void writeSvg(GraphRenderer renderer, int width, int height, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            renderer.writeSvg(out, width, height);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.vibecoding.calculator.graph;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-frame paint diagnostics for {@link GraphPanel}: frame time, time and
+ * evaluation count per layer (grid, each function, each data series),
+ * compiled-expression cache hit rate and frames over budget.
+ *
+ * <p>Frames are recorded on the EDT; getters may be called from any
+ * thread (JMX) and see the last completed frame.</p>
+ */
+public class GraphMetrics implements GraphMetricsMXBean {
+    /** A frame slower than this (60 Hz) counts as dropped. */
+    public static final long FRAME_BUDGET_NANOS = 16_666_667L;
+
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong totalEvaluations = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    private volatile long lastFrameNanos;
+    private volatile long maxFrameNanos;
+    private volatile double averageFrameNanos;
+    private volatile long lastFrameEvaluations;
+    private volatile Map<String, Double> lastLayerMillis = Collections.emptyMap();
+
+    // Frame in progress (EDT only)
+    private final Map<String, Double> currentLayers = new LinkedHashMap<>();
+    private long currentEvaluations;
+
+    private ObjectName objectName;
+
+    void beginFrame() {
+        currentLayers.clear();
+        currentEvaluations = 0;
+    }
+
+    void recordLayer(String layer, long nanos, long evaluations) {
+        currentLayers.merge(layer, nanos / 1e6, Double::sum);
+        currentEvaluations += evaluations;
+    }
+
+    void recordCacheLookup(boolean hit) {
+        (hit ? cacheHits : cacheMisses).incrementAndGet();
+    }
+
+    void endFrame(long nanos) {
+        long n = frames.incrementAndGet();
+        if (nanos > FRAME_BUDGET_NANOS) droppedFrames.incrementAndGet();
+        totalEvaluations.addAndGet(currentEvaluations);
+        lastFrameNanos = nanos;
+        if (nanos > maxFrameNanos) maxFrameNanos = nanos;
+        // Exponential moving average over roughly the last 20 frames
+        averageFrameNanos = n == 1 ? nanos : averageFrameNanos + (nanos - averageFrameNanos) / 20;
+        lastFrameEvaluations = currentEvaluations;
+        lastLayerMillis = Collections.unmodifiableMap(new LinkedHashMap<>(currentLayers));
+    }
+
+    @Override public long getFrames() { return frames.get(); }
+    @Override public long getDroppedFrames() { return droppedFrames.get(); }
+    @Override public double getLastFrameMillis() { return lastFrameNanos / 1e6; }
+    @Override public double getMaxFrameMillis() { return maxFrameNanos / 1e6; }
+    @Override public double getAverageFrameMillis() { return averageFrameNanos / 1e6; }
+    @Override public long getLastFrameEvaluations() { return lastFrameEvaluations; }
+    @Override public long getTotalEvaluations() { return totalEvaluations.get(); }
+    @Override public Map<String, Double> getLastFrameLayerMillis() { return lastLayerMillis; }
+
+    @Override
+    public double getCacheHitRate() {
+        long hits = cacheHits.get(), total = hits + cacheMisses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String getSlowestLayer() {
+        String slowest = "";
+        double max = -1;
+        for (Map.Entry<String, Double> e : lastLayerMillis.entrySet()) {
+            if (e.getValue() > max) { max = e.getValue(); slowest = e.getKey(); }
+        }
+        return slowest;
+    }
+
+    @Override
+    public void reset() {
+        frames.set(0);
+        droppedFrames.set(0);
+        totalEvaluations.set(0);
+        cacheHits.set(0);
+        cacheMisses.set(0);
+        lastFrameNanos = 0;
+        maxFrameNanos = 0;
+        averageFrameNanos = 0;
+        lastFrameEvaluations = 0;
+        lastLayerMillis = Collections.emptyMap();
+    }
+
+    /**
+     * Registers this instance with the platform MBean server under a unique
+     * name. Metrics are optional, so a failed registration leaves the
+     * instance unregistered instead of failing the caller.
+     */
+    public synchronized void register() {
+        if (objectName != null) return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            while (true) {
+                ObjectName name = new ObjectName("com.vibecoding.calculator:type=GraphMetrics,name=graph"
+                        + INSTANCES.incrementAndGet());
+                try {
+                    server.registerMBean(this, name);
+                    objectName = name;
+                    return;
+                } catch (InstanceAlreadyExistsException ignored) {
+                    // Another instance took the name; try the next one
+                }
+            }
+        } catch (JMException | SecurityException ignored) {
+            // No JMX for this panel; painting does not depend on it
+        }
+    }
+
+    public synchronized void unregister() {
+        if (objectName == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException ignored) {
+            // Already gone
+        }
+        objectName = null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.vibecoding.calculator.graph;
+
+import java.util.Map;
+
+/** JMX view of {@link GraphMetrics}. */
+public interface GraphMetricsMXBean {
+    long getFrames();
+    long getDroppedFrames();
+    double getLastFrameMillis();
+    double getMaxFrameMillis();
+    double getAverageFrameMillis();
+    long getLastFrameEvaluations();
+    long getTotalEvaluations();
+    double getCacheHitRate();
+    Map<String, Double> getLastFrameLayerMillis();
+    String getSlowestLayer();
+    void reset();
+}
@@ -1,25 +1,38 @@
 package com.vibecoding.calculator.graph;
 
-import com.vibecoding.calculator.parser.ExpressionParser;
+import com.vibecoding.calculator.parser.CompiledExpression;
 import com.vibecoding.calculator.ui.Theme;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.awt.geom.*;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class GraphPanel extends JPanel {
 
     private double xMin = -10, xMax = 10, yMin = -10, yMax = 10;
     private final List<FunctionEntry> functions = new ArrayList<>();
+    private final List<DataSeries> dataSeries = new ArrayList<>();
     private boolean showGrid = true;
     private boolean showAxes = true;
     private Point dragStart;
     private boolean useDegrees = false;
+    private boolean showDiagnostics = false;
+    private final GraphMetrics metrics = new GraphMetrics();
+    private static final int COMPILE_CACHE_SIZE = 64;
+    /** Compiled functions kept across repaints, least recently used evicted first. */
+    private final Map<String, CompiledExpression> compileCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledExpression> eldest) {
+            // Typing creates a new expression per keystroke; the plotted ones stay recent
+            return size() > COMPILE_CACHE_SIZE;
+        }
+    };
 
-    private static final Color[] FUNCTION_COLORS = {
+    static final Color[] FUNCTION_COLORS = {
             Theme.ACCENT_BLUE, Theme.ACCENT_GREEN, Theme.ACCENT_PEACH,
             Theme.ACCENT_MAUVE, Theme.ACCENT_YELLOW, Theme.ACCENT_TEAL
     };
@@ -37,7 +50,7 @@ public class GraphPanel extends JPanel {
     }
 
     public GraphPanel() {
-        setBackground(new Color(0x18, 0x18, 0x28));
+        setBackground(GraphRenderer.BACKGROUND);
         setPreferredSize(new Dimension(600, 450));
 
         addMouseWheelListener(e -> {
@@ -103,6 +116,37 @@ public class GraphPanel extends JPanel {
         repaint();
     }
 
+    public void addDataSeries(DataSeries series) {
+        if (series.color == null) {
+            series.color = FUNCTION_COLORS[(functions.size() + dataSeries.size()) % FUNCTION_COLORS.length];
+        }
+        dataSeries.add(series);
+        repaint();
+    }
+
+    public void removeDataSeries(DataSeries series) {
+        if (dataSeries.remove(series)) repaint();
+    }
+
+    public void clearDataSeries() {
+        dataSeries.clear();
+        repaint();
+    }
+
+    public List<DataSeries> getDataSeries() { return dataSeries; }
+
+    /** Fits the viewport to the series bounds with a small margin. */
+    public void zoomToData(DataSeries series) {
+        double x0 = series.minX(), x1 = series.maxX();
+        double y0 = series.minY(), y1 = series.maxY();
+        if (Double.isNaN(y0)) return;
+        double mx = x1 > x0 ? (x1 - x0) * 0.05 : 1;
+        double my = y1 > y0 ? (y1 - y0) * 0.05 : 1;
+        xMin = x0 - mx; xMax = x1 + mx;
+        yMin = y0 - my; yMax = y1 + my;
+        repaint();
+    }
+
     public void toggleFunction(int index) {
         if (index >= 0 && index < functions.size()) {
             functions.get(index).visible = !functions.get(index).visible;
@@ -132,149 +176,70 @@ public class GraphPanel extends JPanel {
     public void setShowGrid(boolean show) { this.showGrid = show; repaint(); }
     public void setShowAxes(boolean show) { this.showAxes = show; repaint(); }
 
-    public List<FunctionEntry> getFunctions() { return functions; }
-
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2 = (Graphics2D) g.create();
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        int w = getWidth(), h = getHeight();
-
-        if (showGrid) drawGrid(g2, w, h);
-        if (showAxes) drawAxes(g2, w, h);
+    public void setShowDiagnostics(boolean show) { this.showDiagnostics = show; repaint(); }
 
-        for (FunctionEntry fn : functions) {
-            if (fn.visible && fn.expression != null && !fn.expression.trim().isEmpty()) {
-                drawFunction(g2, fn, w, h);
-            }
-        }
-
-        g2.dispose();
-    }
-
-    private void drawGrid(Graphics2D g2, int w, int h) {
-        g2.setColor(new Color(0x30, 0x30, 0x50));
-        g2.setStroke(new BasicStroke(0.5f));
+    public List<FunctionEntry> getFunctions() { return functions; }
 
-        double step = calculateGridStep(xMax - xMin, w);
-        double startX = Math.floor(xMin / step) * step;
-        for (double x = startX; x <= xMax; x += step) {
-            int px = toScreenX(x, w);
-            g2.drawLine(px, 0, px, h);
-        }
+    /** Paint diagnostics; also published over JMX while the panel is displayed. */
+    public GraphMetrics getMetrics() { return metrics; }
 
-        step = calculateGridStep(yMax - yMin, h);
-        double startY = Math.floor(yMin / step) * step;
-        for (double y = startY; y <= yMax; y += step) {
-            int py = toScreenY(y, h);
-            g2.drawLine(0, py, w, py);
-        }
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        metrics.register();
     }
 
-    private void drawAxes(Graphics2D g2, int w, int h) {
-        g2.setStroke(new BasicStroke(1.5f));
-        g2.setColor(new Color(0x6C, 0x70, 0x86));
-
-        // X axis
-        if (yMin <= 0 && yMax >= 0) {
-            int y0 = toScreenY(0, h);
-            g2.drawLine(0, y0, w, y0);
-        }
-        // Y axis
-        if (xMin <= 0 && xMax >= 0) {
-            int x0 = toScreenX(0, w);
-            g2.drawLine(x0, 0, x0, h);
-        }
-
-        // Tick labels
-        g2.setFont(new Font("Consolas", Font.PLAIN, 10));
-        g2.setColor(Theme.TEXT_SUBTLE);
-
-        double step = calculateGridStep(xMax - xMin, w);
-        double startX = Math.floor(xMin / step) * step;
-        int y0 = toScreenY(0, h);
-        for (double x = startX; x <= xMax; x += step) {
-            if (Math.abs(x) < step * 0.01) continue;
-            int px = toScreenX(x, w);
-            String label = formatTickLabel(x);
-            g2.drawString(label, px + 2, Math.min(Math.max(y0 + 14, 14), h - 2));
-        }
-
-        step = calculateGridStep(yMax - yMin, h);
-        double startY = Math.floor(yMin / step) * step;
-        int x0 = toScreenX(0, w);
-        for (double y = startY; y <= yMax; y += step) {
-            if (Math.abs(y) < step * 0.01) continue;
-            int py = toScreenY(y, h);
-            String label = formatTickLabel(y);
-            g2.drawString(label, Math.min(Math.max(x0 + 4, 4), w - 40), py - 2);
-        }
+    @Override
+    public void removeNotify() {
+        metrics.unregister();
+        super.removeNotify();
     }
 
-    private void drawFunction(Graphics2D g2, FunctionEntry fn, int w, int h) {
-        g2.setColor(fn.color);
-        g2.setStroke(new BasicStroke(2.2f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-
-        GeneralPath path = new GeneralPath();
-        boolean started = false;
-        double prevY = Double.NaN;
-
-        for (int px = 0; px < w; px++) {
-            double x = xMin + (xMax - xMin) * px / w;
-            double y;
-            try {
-                String expr = fn.expression.replace("x", "(" + x + ")").replace("X", "(" + x + ")");
-                ExpressionParser parser = new ExpressionParser(expr, useDegrees);
-                y = parser.parse();
-            } catch (Exception e) {
-                y = Double.NaN;
-            }
-
-            if (Double.isNaN(y) || Double.isInfinite(y) || y < yMin - (yMax - yMin) * 10 || y > yMax + (yMax - yMin) * 10) {
-                started = false;
-                prevY = Double.NaN;
-                continue;
-            }
-
-            // Detect discontinuities (e.g. tan)
-            if (!Double.isNaN(prevY) && Math.abs(y - prevY) > (yMax - yMin) * 2) {
-                started = false;
-            }
-
-            int py = toScreenY(y, h);
-            if (!started) {
-                path.moveTo(px, py);
-                started = true;
-            } else {
-                path.lineTo(px, py);
-            }
-            prevY = y;
-        }
-        g2.draw(path);
+    /** Copies the current viewport, toggles, functions and data series into a renderer. */
+    public GraphRenderer snapshot() {
+        GraphRenderer renderer = new GraphRenderer(xMin, xMax, yMin, yMax)
+                .setShowGrid(showGrid)
+                .setShowAxes(showAxes)
+                .setUseDegrees(useDegrees);
+        for (FunctionEntry fn : functions) renderer.addFunction(fn);
+        for (DataSeries series : dataSeries) renderer.addDataSeries(series);
+        return renderer;
     }
 
-    private int toScreenX(double x, int w) { return (int) ((x - xMin) / (xMax - xMin) * w); }
-    private int toScreenY(double y, int h) { return (int) ((yMax - y) / (yMax - yMin) * h); }
-
-    private double calculateGridStep(double range, int pixels) {
-        double rawStep = range * 80 / pixels;
-        double mag = Math.pow(10, Math.floor(Math.log10(rawStep)));
-        double normalized = rawStep / mag;
-        if (normalized <= 1) return mag;
-        if (normalized <= 2) return 2 * mag;
-        if (normalized <= 5) return 5 * mag;
-        return 10 * mag;
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g.create();
+        long start = System.nanoTime();
+        metrics.beginFrame();
+        snapshot().instrument(metrics, compileCache).render(g2, getWidth(), getHeight());
+        metrics.endFrame(System.nanoTime() - start);
+        if (showDiagnostics) drawDiagnostics(g2);
+        g2.dispose();
     }
 
-    private String formatTickLabel(double val) {
-        if (Math.abs(val) >= 1e6 || (Math.abs(val) < 0.01 && val != 0)) {
-            return String.format("%.1e", val);
+    private void drawDiagnostics(Graphics2D g2) {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("frame %.1f ms (média %.1f, máx %.1f)",
+                metrics.getLastFrameMillis(), metrics.getAverageFrameMillis(), metrics.getMaxFrameMillis()));
+        lines.add(String.format("avaliações %d | cache %.0f%% | perdidos %d/%d",
+                metrics.getLastFrameEvaluations(), metrics.getCacheHitRate() * 100,
+                metrics.getDroppedFrames(), metrics.getFrames()));
+        for (Map.Entry<String, Double> e : metrics.getLastFrameLayerMillis().entrySet()) {
+            lines.add(String.format("  %-12s %6.2f ms", e.getKey(), e.getValue()));
         }
-        if (val == Math.floor(val) && Math.abs(val) < 1e6) {
-            return String.valueOf((int) val);
+
+        g2.setFont(new Font("Consolas", Font.PLAIN, 11));
+        FontMetrics fm = g2.getFontMetrics();
+        int boxW = 0;
+        for (String line : lines) boxW = Math.max(boxW, fm.stringWidth(line));
+        int lineH = fm.getHeight();
+        g2.setColor(new Color(0x11, 0x11, 0x1B, 0xD0));
+        g2.fillRoundRect(8, 8, boxW + 16, lines.size() * lineH + 10, 8, 8);
+        g2.setColor(metrics.getLastFrameMillis() * 1e6 > GraphMetrics.FRAME_BUDGET_NANOS ? Theme.ACCENT_RED : Theme.ACCENT_GREEN);
+        for (int i = 0; i < lines.size(); i++) {
+            g2.drawString(lines.get(i), 16, 8 + 5 + fm.getAscent() + i * lineH);
+            if (i == 0) g2.setColor(Theme.TEXT_DIM);
         }
-        return String.format("%.2f", val);
     }
 }
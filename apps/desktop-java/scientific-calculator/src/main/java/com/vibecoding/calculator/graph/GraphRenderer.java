@@ -0,0 +1,386 @@
+package com.vibecoding.calculator.graph;
+
+import com.vibecoding.calculator.parser.CompiledExpression;
+import com.vibecoding.calculator.ui.Theme;
+
+import java.awt.*;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.PathIterator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Draws a graph scene (viewport, grid/axes toggles, functions, data series)
+ * independently of any window. {@link GraphPanel} paints through it, and
+ * {@link GraphExporter} uses it to write PNG and SVG in headless mode.
+ */
+public class GraphRenderer {
+    public static final Color BACKGROUND = new Color(0x18, 0x18, 0x28);
+    private static final Color GRID_COLOR = new Color(0x30, 0x30, 0x50);
+    private static final Color AXIS_COLOR = new Color(0x6C, 0x70, 0x86);
+    private static final Font TICK_FONT = new Font("Consolas", Font.PLAIN, 10);
+
+    private final double xMin, xMax, yMin, yMax;
+    private boolean showGrid = true;
+    private boolean showAxes = true;
+    private boolean useDegrees = false;
+    private final List<GraphPanel.FunctionEntry> functions = new ArrayList<>();
+    private final List<DataSeries> dataSeries = new ArrayList<>();
+
+    private GraphMetrics metrics;
+    private Map<String, CompiledExpression> compileCache;
+
+    public GraphRenderer(double xMin, double xMax, double yMin, double yMax) {
+        if (!(xMax > xMin) || !(yMax > yMin)) throw new IllegalArgumentException("Janela inválida");
+        this.xMin = xMin;
+        this.xMax = xMax;
+        this.yMin = yMin;
+        this.yMax = yMax;
+    }
+
+    public GraphRenderer setShowGrid(boolean show) { this.showGrid = show; return this; }
+    public GraphRenderer setShowAxes(boolean show) { this.showAxes = show; return this; }
+    public GraphRenderer setUseDegrees(boolean deg) { this.useDegrees = deg; return this; }
+
+    public GraphRenderer addFunction(String expression, Color color) {
+        functions.add(new GraphPanel.FunctionEntry(expression, color));
+        return this;
+    }
+
+    GraphRenderer addFunction(GraphPanel.FunctionEntry entry) {
+        GraphPanel.FunctionEntry copy = new GraphPanel.FunctionEntry(entry.expression, entry.color);
+        copy.visible = entry.visible;
+        functions.add(copy);
+        return this;
+    }
+
+    /** Adds a series, giving it the next palette color if it has none, as {@link GraphPanel} does. */
+    public GraphRenderer addDataSeries(DataSeries series) {
+        if (series.color == null) {
+            series.color = GraphPanel.FUNCTION_COLORS[(functions.size() + dataSeries.size()) % GraphPanel.FUNCTION_COLORS.length];
+        }
+        dataSeries.add(series);
+        return this;
+    }
+
+    /**
+     * Records per-layer timings into {@code metrics} and reuses compiled
+     * expressions from {@code cache}. Both are confined to the painting
+     * thread, so instrumented renderers must not be used for tiled export.
+     */
+    GraphRenderer instrument(GraphMetrics metrics, Map<String, CompiledExpression> cache) {
+        this.metrics = metrics;
+        this.compileCache = cache;
+        return this;
+    }
+
+    /**
+     * Renders onto {@code g2} for a {@code w}×{@code h} scene. Functions are
+     * sampled only over the pixel columns in the clip, so tiles cost in
+     * proportion to their width. The background is left to the caller.
+     */
+    public void render(Graphics2D g2, int w, int h) {
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int pxFrom = 0, pxTo = w;
+        Rectangle clip = g2.getClipBounds();
+        if (clip != null) {
+            // Two columns of margin keep strokes continuous across tile seams
+            pxFrom = Math.max(clip.x - 2, 0);
+            pxTo = Math.min(clip.x + clip.width + 2, w);
+        }
+        draw(new GraphicsCanvas(g2), w, h, pxFrom, pxTo);
+    }
+
+    /** Streams the scene as an SVG document; path data is never held in memory. */
+    public void writeSvg(Writer out, int w, int h) throws IOException {
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + w + "\" height=\"" + h
+                + "\" viewBox=\"0 0 " + w + " " + h + "\">\n");
+        out.write("<rect width=\"100%\" height=\"100%\" fill=\"" + hex(BACKGROUND) + "\"/>\n");
+        try {
+            draw(new SvgCanvas(out), w, h, 0, w);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.write("</svg>\n");
+    }
+
+    private void draw(Canvas c, int w, int h, int pxFrom, int pxTo) {
+        long start = System.nanoTime();
+        if (showGrid) drawGrid(c, w, h);
+        if (showAxes) drawAxes(c, w, h);
+        record("grade/eixos", start, 0);
+
+        for (int i = 0; i < functions.size(); i++) {
+            GraphPanel.FunctionEntry fn = functions.get(i);
+            if (fn.visible && fn.expression != null && !fn.expression.trim().isEmpty()) {
+                start = System.nanoTime();
+                CompiledExpression compiled = compile(fn.expression);
+                if (compiled == null) continue;
+                c.begin(fn.color, 2.2f, true);
+                traceFunction(c, compiled, w, h, pxFrom, pxTo);
+                c.end();
+                record("f" + (i + 1), start, Math.max(pxTo - pxFrom, 0));
+            }
+        }
+
+        for (int i = 0; i < dataSeries.size(); i++) {
+            DataSeries series = dataSeries.get(i);
+            if (!series.visible) continue;
+            start = System.nanoTime();
+            c.begin(series.color, 1.2f, true);
+            double[] coords = new double[6];
+            for (PathIterator it = series.buildPath(xMin, xMax, yMin, yMax, w, h).getPathIterator(null); !it.isDone(); it.next()) {
+                if (it.currentSegment(coords) == PathIterator.SEG_MOVETO) c.moveTo(coords[0], coords[1]);
+                else c.lineTo(coords[0], coords[1]);
+            }
+            c.end();
+            // Keyed by position: names are free text and may repeat or clash with "f1"
+            record("s" + (i + 1) + " " + series.getName(), start, 0);
+        }
+    }
+
+    /** Compiles through the cache when instrumented; null for invalid expressions. */
+    private CompiledExpression compile(String expression) {
+        String key = (useDegrees ? "D:" : "R:") + expression;
+        if (compileCache != null) {
+            CompiledExpression cached = compileCache.get(key);
+            if (metrics != null) metrics.recordCacheLookup(cached != null);
+            if (cached != null) return cached;
+        }
+        CompiledExpression compiled;
+        try {
+            compiled = CompiledExpression.compile(expression, useDegrees);
+        } catch (ArithmeticException e) {
+            return null;
+        }
+        if (compileCache != null) compileCache.put(key, compiled);
+        return compiled;
+    }
+
+    private void record(String layer, long startNanos, long evaluations) {
+        if (metrics != null) metrics.recordLayer(layer, System.nanoTime() - startNanos, evaluations);
+    }
+
+    private void drawGrid(Canvas c, int w, int h) {
+        c.begin(GRID_COLOR, 0.5f, false);
+        double step = calculateGridStep(xMax - xMin, w);
+        double startX = Math.floor(xMin / step) * step;
+        for (double x = startX; x <= xMax; x += step) {
+            int px = toScreenX(x, w);
+            c.moveTo(px, 0);
+            c.lineTo(px, h);
+        }
+
+        step = calculateGridStep(yMax - yMin, h);
+        double startY = Math.floor(yMin / step) * step;
+        for (double y = startY; y <= yMax; y += step) {
+            int py = toScreenY(y, h);
+            c.moveTo(0, py);
+            c.lineTo(w, py);
+        }
+        c.end();
+    }
+
+    private void drawAxes(Canvas c, int w, int h) {
+        c.begin(AXIS_COLOR, 1.5f, false);
+        // X axis
+        if (yMin <= 0 && yMax >= 0) {
+            int y0 = toScreenY(0, h);
+            c.moveTo(0, y0);
+            c.lineTo(w, y0);
+        }
+        // Y axis
+        if (xMin <= 0 && xMax >= 0) {
+            int x0 = toScreenX(0, w);
+            c.moveTo(x0, 0);
+            c.lineTo(x0, h);
+        }
+        c.end();
+
+        // Tick labels
+        double step = calculateGridStep(xMax - xMin, w);
+        double startX = Math.floor(xMin / step) * step;
+        int y0 = toScreenY(0, h);
+        for (double x = startX; x <= xMax; x += step) {
+            if (Math.abs(x) < step * 0.01) continue;
+            int px = toScreenX(x, w);
+            c.text(formatTickLabel(x), px + 2, Math.min(Math.max(y0 + 14, 14), h - 2));
+        }
+
+        step = calculateGridStep(yMax - yMin, h);
+        double startY = Math.floor(yMin / step) * step;
+        int x0 = toScreenX(0, w);
+        for (double y = startY; y <= yMax; y += step) {
+            if (Math.abs(y) < step * 0.01) continue;
+            int py = toScreenY(y, h);
+            c.text(formatTickLabel(y), Math.min(Math.max(x0 + 4, 4), w - 40), py - 2);
+        }
+    }
+
+    private void traceFunction(Canvas c, CompiledExpression fn, int w, int h, int pxFrom, int pxTo) {
+        CompiledExpression.Workspace ws = fn.newWorkspace();
+        boolean started = false;
+        double prevY = Double.NaN;
+
+        for (int px = pxFrom; px < pxTo; px++) {
+            double x = xMin + (xMax - xMin) * px / w;
+            double y;
+            try {
+                y = fn.evaluate(x, ws);
+            } catch (ArithmeticException e) {
+                y = Double.NaN;
+            }
+
+            if (Double.isNaN(y) || Double.isInfinite(y) || y < yMin - (yMax - yMin) * 10 || y > yMax + (yMax - yMin) * 10) {
+                started = false;
+                prevY = Double.NaN;
+                continue;
+            }
+
+            // Detect discontinuities (e.g. tan)
+            if (!Double.isNaN(prevY) && Math.abs(y - prevY) > (yMax - yMin) * 2) {
+                started = false;
+            }
+
+            int py = toScreenY(y, h);
+            if (!started) {
+                c.moveTo(px, py);
+                started = true;
+            } else {
+                c.lineTo(px, py);
+            }
+            prevY = y;
+        }
+    }
+
+    private int toScreenX(double x, int w) { return (int) ((x - xMin) / (xMax - xMin) * w); }
+    private int toScreenY(double y, int h) { return (int) ((yMax - y) / (yMax - yMin) * h); }
+
+    private static double calculateGridStep(double range, int pixels) {
+        double rawStep = range * 80 / pixels;
+        double mag = Math.pow(10, Math.floor(Math.log10(rawStep)));
+        double normalized = rawStep / mag;
+        if (normalized <= 1) return mag;
+        if (normalized <= 2) return 2 * mag;
+        if (normalized <= 5) return 5 * mag;
+        return 10 * mag;
+    }
+
+    private static String formatTickLabel(double val) {
+        if (Math.abs(val) >= 1e6 || (Math.abs(val) < 0.01 && val != 0)) {
+            return String.format("%.1e", val);
+        }
+        if (val == Math.floor(val) && Math.abs(val) < 1e6) {
+            return String.valueOf((int) val);
+        }
+        return String.format("%.2f", val);
+    }
+
+    private static String hex(Color c) {
+        return String.format("#%02x%02x%02x", c.getRed(), c.getGreen(), c.getBlue());
+    }
+
+    /** Drawing target shared by on-screen/PNG rendering and SVG streaming. */
+    private interface Canvas {
+        void begin(Color color, float width, boolean round);
+        void moveTo(double x, double y);
+        void lineTo(double x, double y);
+        void end();
+        void text(String s, int x, int y);
+    }
+
+    private static final class GraphicsCanvas implements Canvas {
+        private final Graphics2D g2;
+        private GeneralPath path;
+
+        GraphicsCanvas(Graphics2D g2) {
+            this.g2 = g2;
+            g2.setFont(TICK_FONT);
+        }
+
+        @Override
+        public void begin(Color color, float width, boolean round) {
+            g2.setColor(color);
+            g2.setStroke(round ? new BasicStroke(width, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND) : new BasicStroke(width));
+            path = new GeneralPath();
+        }
+
+        @Override public void moveTo(double x, double y) { path.moveTo(x, y); }
+        @Override public void lineTo(double x, double y) { path.lineTo(x, y); }
+
+        @Override
+        public void end() {
+            g2.draw(path);
+            path = null;
+        }
+
+        @Override
+        public void text(String s, int x, int y) {
+            g2.setColor(Theme.TEXT_SUBTLE);
+            g2.drawString(s, x, y);
+        }
+    }
+
+    private static final class SvgCanvas implements Canvas {
+        private final Writer out;
+        private String attributes;
+        private boolean open;
+
+        SvgCanvas(Writer out) { this.out = out; }
+
+        @Override
+        public void begin(Color color, float width, boolean round) {
+            attributes = "\" fill=\"none\" stroke=\"" + hex(color) + "\" stroke-width=\"" + width + "\""
+                    + (round ? " stroke-linecap=\"round\" stroke-linejoin=\"round\"" : "") + "/>\n";
+        }
+
+        @Override public void moveTo(double x, double y) { segment('M', x, y); }
+        @Override public void lineTo(double x, double y) { segment('L', x, y); }
+
+        private void segment(char op, double x, double y) {
+            try {
+                if (!open) {
+                    out.write("<path d=\"");
+                    open = true;
+                }
+                out.write(op);
+                out.write(format(x));
+                out.write(' ');
+                out.write(format(y));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void end() {
+            try {
+                if (open) out.write(attributes);
+                open = false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void text(String s, int x, int y) {
+            try {
+                out.write("<text x=\"" + x + "\" y=\"" + y + "\" font-family=\"Consolas, monospace\" font-size=\"10\" fill=\""
+                        + hex(Theme.TEXT_SUBTLE) + "\">" + s + "</text>\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String format(double v) {
+            long r = Math.round(v * 100);
+            if (r % 100 == 0) return Long.toString(r / 100);
+            return Double.toString(r / 100.0);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.vibecoding.calculator.parser;
+
+/**
+ * Expression over the variable x compiled once into a flat postfix program.
+ * Evaluation runs on the primitive stacks of a reusable {@link Workspace},
+ * so plotting and solver loops do not allocate per point.
+ *
+ * <p>{@link #evaluateDual} is forward-mode automatic differentiation: every
+ * stack slot carries a (value, derivative) pair, so f(x) and f'(x) come out
+ * of a single pass without finite-difference error.</p>
+ */
+public final class CompiledExpression {
+    // Opcodes
+    static final int CONST = 0, VAR = 1;
+    static final int ADD = 2, SUB = 3, MUL = 4, DIV = 5, POW = 6, NEG = 7;
+    static final int SIN = 8, COS = 9, TAN = 10, ASIN = 11, ACOS = 12, ATAN = 13;
+    static final int SINH = 14, COSH = 15, TANH = 16, ASINH = 17, ACOSH = 18, ATANH = 19;
+    static final int LN = 20, LOG10 = 21, LOG2 = 22, SQRT = 23, CBRT = 24, ABS = 25, EXP = 26;
+    static final int FLOOR = 27, CEIL = 28, ROUND = 29, SIGN = 30, FACT = 31;
+
+    private static final double DEG = Math.PI / 180;
+    private static final double LN10 = Math.log(10);
+    private static final double LN2 = Math.log(2);
+
+    private final int[] code;
+    private final double[] consts;
+    private final int maxStack;
+    private final boolean useDegrees;
+    private final boolean usesX;
+
+    CompiledExpression(int[] code, double[] consts, int maxStack, boolean useDegrees, boolean usesX) {
+        this.code = code;
+        this.consts = consts;
+        this.maxStack = maxStack;
+        this.useDegrees = useDegrees;
+        this.usesX = usesX;
+    }
+
+    public static CompiledExpression compile(String input, boolean useDegrees) {
+        return new ExpressionCompiler(input, true).compile(useDegrees);
+    }
+
+    public static CompiledExpression compile(String input) {
+        return compile(input, false);
+    }
+
+    /** True if the expression references x; otherwise it is a constant. */
+    public boolean usesX() { return usesX; }
+
+    public boolean isUseDegrees() { return useDegrees; }
+
+    public Workspace newWorkspace() { return new Workspace(maxStack); }
+
+    /**
+     * Primitive value/derivative stacks reused across evaluations.
+     * A workspace is not thread-safe; give each thread its own.
+     */
+    public static final class Workspace {
+        private final double[] val;
+        private final double[] der;
+        private double derivative;
+
+        public Workspace(int capacity) {
+            this.val = new double[capacity];
+            this.der = new double[capacity];
+        }
+
+        /** f'(x) from the last {@link CompiledExpression#evaluateDual} call. */
+        public double derivative() { return derivative; }
+    }
+
+    /** Evaluates f(x). */
+    public double evaluate(double x, Workspace ws) {
+        checkCapacity(ws);
+        double[] s = ws.val;
+        int sp = -1;
+        for (int pc = 0; pc < code.length; pc++) {
+            int op = code[pc];
+            switch (op) {
+                case CONST -> s[++sp] = consts[code[++pc]];
+                case VAR -> s[++sp] = x;
+                case ADD -> { sp--; s[sp] += s[sp + 1]; }
+                case SUB -> { sp--; s[sp] -= s[sp + 1]; }
+                case MUL -> { sp--; s[sp] *= s[sp + 1]; }
+                case DIV -> {
+                    sp--;
+                    if (s[sp + 1] == 0) throw new ArithmeticException("Divisão por zero");
+                    s[sp] /= s[sp + 1];
+                }
+                case POW -> { sp--; s[sp] = Math.pow(s[sp], s[sp + 1]); }
+                case NEG -> s[sp] = -s[sp];
+                default -> s[sp] = applyFunction(op, s[sp]);
+            }
+        }
+        return s[sp];
+    }
+
+    /**
+     * Evaluates f(x) and f'(x) in one pass. Returns f(x); the derivative is
+     * left in {@link Workspace#derivative()}.
+     */
+    public double evaluateDual(double x, Workspace ws) {
+        checkCapacity(ws);
+        double[] v = ws.val;
+        double[] d = ws.der;
+        int sp = -1;
+        for (int pc = 0; pc < code.length; pc++) {
+            int op = code[pc];
+            switch (op) {
+                case CONST -> { v[++sp] = consts[code[++pc]]; d[sp] = 0; }
+                case VAR -> { v[++sp] = x; d[sp] = 1; }
+                case ADD -> { sp--; v[sp] += v[sp + 1]; d[sp] += d[sp + 1]; }
+                case SUB -> { sp--; v[sp] -= v[sp + 1]; d[sp] -= d[sp + 1]; }
+                case MUL -> {
+                    sp--;
+                    double a = v[sp], b = v[sp + 1];
+                    d[sp] = d[sp] * b + a * d[sp + 1];
+                    v[sp] = a * b;
+                }
+                case DIV -> {
+                    sp--;
+                    double a = v[sp], b = v[sp + 1];
+                    if (b == 0) throw new ArithmeticException("Divisão por zero");
+                    double q = a / b;
+                    d[sp] = (d[sp] - q * d[sp + 1]) / b;
+                    v[sp] = q;
+                }
+                case POW -> {
+                    sp--;
+                    double a = v[sp], b = v[sp + 1];
+                    double da = d[sp], db = d[sp + 1];
+                    double p = Math.pow(a, b);
+                    if (db == 0) {
+                        // Constant exponent: valid for negative bases too
+                        d[sp] = da == 0 ? 0 : b * Math.pow(a, b - 1) * da;
+                    } else {
+                        d[sp] = p * (db * Math.log(a) + (da == 0 ? 0 : b * da / a));
+                    }
+                    v[sp] = p;
+                }
+                case NEG -> { v[sp] = -v[sp]; d[sp] = -d[sp]; }
+                default -> {
+                    double a = v[sp];
+                    d[sp] = d[sp] == 0 ? 0 : derivativeOf(op, a) * d[sp];
+                    v[sp] = applyFunction(op, a);
+                }
+            }
+        }
+        ws.derivative = d[sp];
+        return v[sp];
+    }
+
+    /**
+     * Batch form of {@link #evaluateDual(double, Workspace)}: fills
+     * {@code values[i]} and {@code derivatives[i]} for every {@code xs[i]}.
+     * Points where evaluation fails get NaN in both outputs.
+     */
+    public void evaluateDual(double[] xs, double[] values, double[] derivatives, Workspace ws) {
+        for (int i = 0; i < xs.length; i++) {
+            try {
+                values[i] = evaluateDual(xs[i], ws);
+                derivatives[i] = ws.derivative;
+            } catch (ArithmeticException e) {
+                values[i] = Double.NaN;
+                derivatives[i] = Double.NaN;
+            }
+        }
+    }
+
+    private void checkCapacity(Workspace ws) {
+        if (ws.val.length < maxStack) {
+            throw new IllegalArgumentException("Workspace pequeno demais: " + ws.val.length + " < " + maxStack);
+        }
+    }
+
+    private double applyFunction(int op, double arg) {
+        return switch (op) {
+            case SIN -> useDegrees ? Math.sin(Math.toRadians(arg)) : Math.sin(arg);
+            case COS -> useDegrees ? Math.cos(Math.toRadians(arg)) : Math.cos(arg);
+            case TAN -> useDegrees ? Math.tan(Math.toRadians(arg)) : Math.tan(arg);
+            case ASIN -> useDegrees ? Math.toDegrees(Math.asin(arg)) : Math.asin(arg);
+            case ACOS -> useDegrees ? Math.toDegrees(Math.acos(arg)) : Math.acos(arg);
+            case ATAN -> useDegrees ? Math.toDegrees(Math.atan(arg)) : Math.atan(arg);
+            case SINH -> Math.sinh(arg);
+            case COSH -> Math.cosh(arg);
+            case TANH -> Math.tanh(arg);
+            case ASINH -> Math.log(arg + Math.sqrt(arg * arg + 1));
+            case ACOSH -> Math.log(arg + Math.sqrt(arg * arg - 1));
+            case ATANH -> 0.5 * Math.log((1 + arg) / (1 - arg));
+            case LN -> Math.log(arg);
+            case LOG10 -> Math.log10(arg);
+            case LOG2 -> Math.log(arg) / LN2;
+            case SQRT -> Math.sqrt(arg);
+            case CBRT -> Math.cbrt(arg);
+            case ABS -> Math.abs(arg);
+            case EXP -> Math.exp(arg);
+            case FLOOR -> Math.floor(arg);
+            case CEIL -> Math.ceil(arg);
+            case ROUND -> Math.round(arg);
+            case SIGN -> Math.signum(arg);
+            case FACT -> {
+                int n = (int) Math.round(arg);
+                if (n < 0 || n > 170) throw new ArithmeticException("Fatorial fora do domínio");
+                double r = 1;
+                for (int i = 2; i <= n; i++) r *= i;
+                yield r;
+            }
+            default -> throw new IllegalStateException("Opcode inválido: " + op);
+        };
+    }
+
+    /** d/da of the unary function {@code op}; piecewise-constant functions have derivative 0. */
+    private double derivativeOf(int op, double a) {
+        double k = useDegrees ? DEG : 1;
+        return switch (op) {
+            case SIN -> k * Math.cos(a * k);
+            case COS -> -k * Math.sin(a * k);
+            case TAN -> {
+                double c = Math.cos(a * k);
+                yield k / (c * c);
+            }
+            case ASIN -> 1 / (k * Math.sqrt(1 - a * a));
+            case ACOS -> -1 / (k * Math.sqrt(1 - a * a));
+            case ATAN -> 1 / (k * (1 + a * a));
+            case SINH -> Math.cosh(a);
+            case COSH -> Math.sinh(a);
+            case TANH -> {
+                double c = Math.cosh(a);
+                yield 1 / (c * c);
+            }
+            case ASINH -> 1 / Math.sqrt(a * a + 1);
+            case ACOSH -> 1 / Math.sqrt(a * a - 1);
+            case ATANH -> 1 / (1 - a * a);
+            case LN -> 1 / a;
+            case LOG10 -> 1 / (a * LN10);
+            case LOG2 -> 1 / (a * LN2);
+            case SQRT -> 0.5 / Math.sqrt(a);
+            case CBRT -> {
+                double c = Math.cbrt(a);
+                yield 1 / (3 * c * c);
+            }
+            case ABS -> Math.signum(a);
+            case EXP -> Math.exp(a);
+            case FLOOR, CEIL, ROUND, SIGN, FACT -> 0;
+            default -> throw new IllegalStateException("Opcode inválido: " + op);
+        };
+    }
+}
@@ -0,0 +1,212 @@
+package com.vibecoding.calculator.parser;
+
+import java.util.Arrays;
+
+/**
+ * Compiles an expression into the postfix program run by
+ * {@link CompiledExpression}. This is the only lexer and function table;
+ * {@link ExpressionParser} evaluates through it. The variable x (or X) is
+ * the only free symbol, and only when allowed.
+ */
+final class ExpressionCompiler {
+    private final String input;
+    private final boolean allowX;
+    private int pos;
+
+    private int[] code = new int[32];
+    private int codeLength;
+    private double[] consts = new double[8];
+    private int constCount;
+    private int depth;
+    private int maxDepth;
+    private boolean usesX;
+
+    ExpressionCompiler(String input, boolean allowX) {
+        this.input = input.replaceAll("\\s+", "");
+        this.allowX = allowX;
+    }
+
+    CompiledExpression compile(boolean useDegrees) {
+        parseExpression();
+        if (pos < input.length()) {
+            throw new ArithmeticException("Caractere inesperado: '" + input.charAt(pos) + "' na posição " + pos);
+        }
+        return new CompiledExpression(Arrays.copyOf(code, codeLength), Arrays.copyOf(consts, constCount),
+                Math.max(maxDepth, 1), useDegrees, usesX);
+    }
+
+    // expression = term (('+' | '-') term)*
+    private void parseExpression() {
+        parseTerm();
+        while (pos < input.length()) {
+            char c = input.charAt(pos);
+            if (c == '+') { pos++; parseTerm(); emit(CompiledExpression.ADD, -1); }
+            else if (c == '-') { pos++; parseTerm(); emit(CompiledExpression.SUB, -1); }
+            else break;
+        }
+    }
+
+    // term = power (('*' | '/') power)*
+    private void parseTerm() {
+        parsePower();
+        while (pos < input.length()) {
+            char c = input.charAt(pos);
+            if (c == '*' || c == '\u00D7') { pos++; parsePower(); emit(CompiledExpression.MUL, -1); }
+            else if (c == '/' || c == '\u00F7') { pos++; parsePower(); emit(CompiledExpression.DIV, -1); }
+            else break;
+        }
+    }
+
+    // power = unary ('^' unary)?
+    private void parsePower() {
+        parseUnary();
+        if (pos < input.length() && input.charAt(pos) == '^') {
+            pos++;
+            parseUnary();
+            emit(CompiledExpression.POW, -1);
+        }
+    }
+
+    // unary = ('+' | '-') unary | atom
+    private void parseUnary() {
+        if (pos < input.length()) {
+            if (input.charAt(pos) == '-') { pos++; parseUnary(); emit(CompiledExpression.NEG, 0); return; }
+            if (input.charAt(pos) == '+') { pos++; parseUnary(); return; }
+        }
+        parseAtom();
+    }
+
+    private void parseAtom() {
+        if (pos >= input.length()) throw new ArithmeticException("Expressão incompleta");
+
+        char c = input.charAt(pos);
+
+        if (c == '(') {
+            pos++;
+            parseExpression();
+            expect(')');
+            return;
+        }
+
+        if (Character.isDigit(c) || c == '.') {
+            pushConst(parseNumber());
+            return;
+        }
+
+        String name = parseName();
+        if (name.isEmpty()) {
+            throw new ArithmeticException("Caractere inesperado: '" + c + "'");
+        }
+
+        switch (name.toLowerCase()) {
+            case "pi", "\u03C0" -> { pushConst(Math.PI); return; }
+            case "e" -> { pushConst(Math.E); return; }
+            case "phi", "\u03C6" -> { pushConst((1 + Math.sqrt(5)) / 2); return; }
+            case "ans" -> { pushConst(0); return; }
+            default -> { }
+        }
+        if (allowX && name.equalsIgnoreCase("x")) {
+            usesX = true;
+            emit(CompiledExpression.VAR, 1);
+            return;
+        }
+
+        int op = functionOpcode(name.toLowerCase());
+        if (pos < input.length() && input.charAt(pos) == '(') {
+            pos++;
+            parseExpression();
+            expect(')');
+        } else {
+            parseUnary();
+        }
+        if (op < 0) throw new ArithmeticException("Função desconhecida: " + name.toLowerCase());
+        emit(op, 0);
+    }
+
+    private static int functionOpcode(String name) {
+        return switch (name) {
+            case "sin" -> CompiledExpression.SIN;
+            case "cos" -> CompiledExpression.COS;
+            case "tan" -> CompiledExpression.TAN;
+            case "asin", "arcsin" -> CompiledExpression.ASIN;
+            case "acos", "arccos" -> CompiledExpression.ACOS;
+            case "atan", "arctan" -> CompiledExpression.ATAN;
+            case "sinh" -> CompiledExpression.SINH;
+            case "cosh" -> CompiledExpression.COSH;
+            case "tanh" -> CompiledExpression.TANH;
+            case "asinh" -> CompiledExpression.ASINH;
+            case "acosh" -> CompiledExpression.ACOSH;
+            case "atanh" -> CompiledExpression.ATANH;
+            case "ln" -> CompiledExpression.LN;
+            case "log", "log10" -> CompiledExpression.LOG10;
+            case "log2" -> CompiledExpression.LOG2;
+            case "sqrt", "\u221A" -> CompiledExpression.SQRT;
+            case "cbrt" -> CompiledExpression.CBRT;
+            case "abs" -> CompiledExpression.ABS;
+            case "exp" -> CompiledExpression.EXP;
+            case "floor" -> CompiledExpression.FLOOR;
+            case "ceil" -> CompiledExpression.CEIL;
+            case "round" -> CompiledExpression.ROUND;
+            case "sign", "sgn" -> CompiledExpression.SIGN;
+            case "fact" -> CompiledExpression.FACT;
+            default -> -1;
+        };
+    }
+
+    private double parseNumber() {
+        int start = pos;
+        boolean hasDot = false;
+        boolean hasE = false;
+        while (pos < input.length()) {
+            char c = input.charAt(pos);
+            if (Character.isDigit(c)) { pos++; }
+            else if (c == '.' && !hasDot) { hasDot = true; pos++; }
+            else if ((c == 'e' || c == 'E') && !hasE && pos > start) {
+                hasE = true;
+                pos++;
+                if (pos < input.length() && (input.charAt(pos) == '+' || input.charAt(pos) == '-')) pos++;
+            }
+            else break;
+        }
+        String numStr = input.substring(start, pos);
+        try {
+            return Double.parseDouble(numStr);
+        } catch (NumberFormatException e) {
+            throw new ArithmeticException("Número inválido: " + numStr);
+        }
+    }
+
+    private String parseName() {
+        int start = pos;
+        while (pos < input.length() && (Character.isLetter(input.charAt(pos)) || input.charAt(pos) == '_')) {
+            pos++;
+        }
+        return input.substring(start, pos);
+    }
+
+    private void expect(char c) {
+        if (pos >= input.length() || input.charAt(pos) != c) {
+            throw new ArithmeticException("Esperado '" + c + "' na posição " + pos);
+        }
+        pos++;
+    }
+
+    private void pushConst(double value) {
+        if (constCount == consts.length) consts = Arrays.copyOf(consts, constCount * 2);
+        consts[constCount] = value;
+        emit(CompiledExpression.CONST, 1);
+        emitOperand(constCount++);
+    }
+
+    private void emit(int op, int stackDelta) {
+        if (codeLength == code.length) code = Arrays.copyOf(code, codeLength * 2);
+        code[codeLength++] = op;
+        depth += stackDelta;
+        if (depth > maxDepth) maxDepth = depth;
+    }
+
+    private void emitOperand(int operand) {
+        if (codeLength == code.length) code = Arrays.copyOf(code, codeLength * 2);
+        code[codeLength++] = operand;
+    }
+}
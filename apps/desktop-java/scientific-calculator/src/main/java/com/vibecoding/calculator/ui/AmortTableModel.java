@@ -0,0 +1,129 @@
+package com.vibecoding.calculator.ui;
+
+import com.vibecoding.calculator.engine.FinancialEngine;
+
+import javax.swing.table.AbstractTableModel;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Amortization schedule computed row by row from the closed-form balance,
+ * so nothing is stored per period. Every column of a level-payment loan
+ * is monotone in the period, which makes sorting a matter of reading the
+ * periods forwards or backwards.
+ */
+class AmortTableModel extends AbstractTableModel {
+    static final int PERIOD = 0, PAYMENT = 1, INTEREST = 2, PRINCIPAL = 3, BALANCE = 4;
+    private static final String[] COLUMNS = {"Per", "Pagamento", "Juros", "Principal", "Saldo"};
+
+    private final FinancialEngine engine;
+    private final double principal;
+    private final double rate;
+    private final int periods;
+    private final boolean beginMode;
+    private final double payment;
+
+    private int sortColumn = PERIOD;
+    private boolean descending;
+
+    AmortTableModel(FinancialEngine engine, double principal, double rate, int periods, boolean beginMode) {
+        this.engine = engine;
+        this.principal = principal;
+        this.rate = rate;
+        this.periods = periods;
+        this.beginMode = beginMode;
+        this.payment = engine.amortPayment(principal, rate, periods, beginMode);
+    }
+
+    @Override
+    public int getRowCount() { return periods; }
+
+    @Override
+    public int getColumnCount() { return COLUMNS.length; }
+
+    @Override
+    public String getColumnName(int col) {
+        if (col != sortColumn) return COLUMNS[col];
+        return COLUMNS[col] + (descending ? " \u25BC" : " \u25B2");
+    }
+
+    @Override
+    public Class<?> getColumnClass(int col) { return col == PERIOD ? Integer.class : Double.class; }
+
+    @Override
+    public Object getValueAt(int row, int col) {
+        int k = periodAt(row);
+        return col == PERIOD ? (Object) k : value(k, col);
+    }
+
+    /** Value of a money column for period k (1-based). */
+    double value(int k, int col) {
+        switch (col) {
+            case PAYMENT: return payment;
+            case BALANCE: return engine.amortBalance(principal, rate, periods, k, beginMode);
+            case PRINCIPAL: return principalAt(k);
+            case INTEREST: return payment - principalAt(k);
+            default: return k;
+        }
+    }
+
+    private double principalAt(int k) {
+        return engine.amortBalance(principal, rate, periods, k - 1, beginMode)
+                - engine.amortBalance(principal, rate, periods, k, beginMode);
+    }
+
+    /** Sorts by {@code col}, toggling the direction when it is already the sort column. */
+    void sortBy(int col) {
+        descending = col == sortColumn && !descending;
+        sortColumn = col;
+        fireTableStructureChanged();
+    }
+
+    int periodAt(int row) {
+        if (beginMode && rate > 0 && periods > 1 && (sortColumn == INTEREST || sortColumn == PRINCIPAL)) {
+            // In BEGIN mode period 1 pays no interest, so it sits apart from the monotone run 2..n
+            boolean firstAtTop = (sortColumn == INTEREST) != descending;
+            if (firstAtTop) {
+                if (row == 0) return 1;
+                row--;
+            } else if (row == periods - 1) {
+                return 1;
+            }
+            return reversed() ? periods - row : row + 2;
+        }
+        return reversed() ? periods - row : row + 1;
+    }
+
+    /** True when the current sort reads the periods backwards. */
+    private boolean reversed() {
+        boolean increasing;
+        switch (sortColumn) {
+            // Balance and interest fall over time; principal rises (for a positive rate)
+            case BALANCE: case INTEREST: increasing = rate < 0; break;
+            case PRINCIPAL: increasing = rate >= 0; break;
+            default: increasing = true;
+        }
+        return increasing == descending;
+    }
+
+    double totalPayment() { return payment * periods; }
+    double totalInterest() { return engine.amortInterest(principal, rate, periods, 1, periods, beginMode); }
+    double totalPrincipal() { return engine.amortPrincipal(principal, rate, periods, 1, periods, beginMode); }
+
+    /** Streams the full schedule as CSV in period order. Safe to call off the EDT. */
+    void exportCsv(Writer out) throws IOException {
+        out.write(String.join(",", COLUMNS));
+        out.write('\n');
+        StringBuilder line = new StringBuilder();
+        double previous = principal;
+        for (int k = 1; k <= periods; k++) {
+            double balance = engine.amortBalance(principal, rate, periods, k, beginMode);
+            double principalPart = previous - balance;
+            line.setLength(0);
+            line.append(k).append(',').append(payment).append(',').append(payment - principalPart)
+                    .append(',').append(principalPart).append(',').append(balance).append('\n');
+            out.write(line.toString());
+            previous = balance;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.vibecoding.calculator.ui;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Read-only view of a filled {@link com.vibecoding.calculator.engine.DataTable}
+ * grid. Column 0 shows the row-axis value; the rest are the grid columns.
+ * Cells are only formatted when the table paints them.
+ */
+class DataGridModel extends AbstractTableModel {
+    private final String rowLabel;
+    private final double[] rowValues;
+    private final String columnLabel;
+    private final double[] columnValues;
+    private final double[] grid;
+    private final double min;
+    private final double max;
+
+    DataGridModel(String rowLabel, double[] rowValues, String columnLabel, double[] columnValues, double[] grid) {
+        this.rowLabel = rowLabel;
+        this.rowValues = rowValues;
+        this.columnLabel = columnLabel;
+        this.columnValues = columnValues;
+        this.grid = grid;
+        double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+        for (double v : grid) {
+            if (v < lo) lo = v;
+            if (v > hi) hi = v;
+        }
+        this.min = lo;
+        this.max = hi;
+    }
+
+    @Override
+    public int getRowCount() { return rowValues.length; }
+
+    @Override
+    public int getColumnCount() { return columnValues.length + 1; }
+
+    @Override
+    public String getColumnName(int col) {
+        if (col == 0) return rowLabel;
+        if (columnLabel == null) return "Resultado";
+        return columnLabel + " = " + axisText(columnValues[col - 1]);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int col) { return Double.class; }
+
+    @Override
+    public Object getValueAt(int row, int col) {
+        if (col == 0) return rowValues[row];
+        return grid[row * columnValues.length + col - 1];
+    }
+
+    /** Position of a value between the grid minimum and maximum, in [0, 1]. */
+    double heat(double value) {
+        if (!(max > min) || Double.isNaN(value)) return 0;
+        return Math.max(0, Math.min(1, (value - min) / (max - min)));
+    }
+
+    static String axisText(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? String.valueOf((long) value) : String.format("%.4g", value);
+    }
+}
@@ -1,14 +1,15 @@
 package com.vibecoding.calculator.ui;
 
+import com.vibecoding.calculator.engine.CashFlowRegister;
+import com.vibecoding.calculator.engine.DataTable;
 import com.vibecoding.calculator.engine.FinancialEngine;
+import com.vibecoding.calculator.engine.GoalSeek;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.List;
 
 public class FinancialCalculatorUI extends JFrame {
     private final FinancialEngine engine = new FinancialEngine();
@@ -25,7 +26,7 @@ public class FinancialCalculatorUI extends JFrame {
     private String activeRegister = null;
 
     // Cash flows
-    private final java.util.List<Double> cashFlows = new java.util.ArrayList<>();
+    private final CashFlowRegister cashFlows = new CashFlowRegister();
 
     public FinancialCalculatorUI(JFrame parent) {
         super("Calculadora Financeira HP 12C");
@@ -52,6 +53,20 @@ public class FinancialCalculatorUI extends JFrame {
         backBtn.addActionListener(e -> { dispose(); if (parent != null) parent.setVisible(true); });
         topBar.add(backBtn, BorderLayout.WEST);
 
+        JPanel tools = Theme.createDarkPanel();
+        tools.setLayout(new FlowLayout(FlowLayout.CENTER, 6, 0));
+        JButton tableBtn = Theme.functionButton("Tabela");
+        tableBtn.setPreferredSize(new Dimension(80, 30));
+        tableBtn.setToolTipText("Tabela de dados: varia um ou dois registradores");
+        tableBtn.addActionListener(e -> openDataTable());
+        tools.add(tableBtn);
+        JButton goalBtn = Theme.functionButton("Meta");
+        goalBtn.setPreferredSize(new Dimension(80, 30));
+        goalBtn.setToolTipText("Atingir meta: acha o registrador que produz um resultado");
+        goalBtn.addActionListener(e -> openGoalSeek());
+        tools.add(goalBtn);
+        topBar.add(tools, BorderLayout.CENTER);
+
         JLabel titleLabel = Theme.createLabel("HP 12C", new Font("Consolas", Font.BOLD, 16), Theme.ACCENT_GREEN);
         topBar.add(titleLabel, BorderLayout.EAST);
         add(topBar, BorderLayout.NORTH);
@@ -169,13 +184,13 @@ public class FinancialCalculatorUI extends JFrame {
         mainPanel.add(btnPanel);
         mainPanel.add(Box.createVerticalStrut(4));
 
-        // Bottom row: 0, ., ±, CHS, ENTER
+        // Bottom row: 0, ., Nj, CHS, ENTER
         JPanel bottomRow = Theme.createDarkPanel();
         bottomRow.setLayout(new GridLayout(1, 5, 4, 4));
         bottomRow.setMaximumSize(new Dimension(Integer.MAX_VALUE, 42));
         addNumBtn(bottomRow, "0");
         addNumBtn(bottomRow, ".");
-        addCalcBtn(bottomRow, "\u00B1", Theme.TEXT_PRIMARY, () -> toggleSign());
+        addCalcBtn(bottomRow, "Nj", Theme.ACCENT_PEACH, () -> setCashFlowCount());
         addCalcBtn(bottomRow, "CHS", Theme.ACCENT_YELLOW, () -> toggleSign());
         addCalcBtn(bottomRow, "ENTER", Theme.ACCENT_GREEN, () -> storeToRegister());
         mainPanel.add(bottomRow);
@@ -382,23 +397,51 @@ public class FinancialCalculatorUI extends JFrame {
         double val = getDisplayValue();
         cashFlows.add(val);
         currentInput.setLength(0);
-        appendOutput("CF[" + (cashFlows.size() - 1) + "] = " + engine.format(val));
+        appendOutput("CF[" + (cashFlows.runs() - 1) + "] = " + engine.format(val));
+        displayMain.setText("0.00");
+    }
+
+    /** Nj: repeats the last cash flow the number of times on the display. */
+    private void setCashFlowCount() {
+        if (cashFlows.isEmpty()) { appendOutput("Sem cash flows"); return; }
+        double val = getDisplayValue();
+        if (val < 1 || val != Math.rint(val) || val > Integer.MAX_VALUE) { appendOutput("Nj deve ser inteiro positivo"); return; }
+        cashFlows.setCount((int) val);
+        currentInput.setLength(0);
+        appendOutput("N[" + (cashFlows.runs() - 1) + "] = " + (int) val);
         displayMain.setText("0.00");
     }
 
     private void calcNPV() {
         if (cashFlows.isEmpty()) { appendOutput("Sem cash flows"); return; }
         double rate = getRegValue(fieldI);
-        double[] cfs = cashFlows.stream().mapToDouble(Double::doubleValue).toArray();
-        double result = engine.npv(rate, cfs);
+        double result = engine.npv(rate, cashFlows);
         displayMain.setText(engine.format(result));
         appendOutput("NPV (i=" + engine.formatPercent(rate) + ") = " + engine.format(result));
     }
 
     private void calcIRR() {
-        if (cashFlows.size() < 2) { appendOutput("Pelo menos 2 cash flows"); return; }
-        double[] cfs = cashFlows.stream().mapToDouble(Double::doubleValue).toArray();
-        double result = engine.irr(cfs);
+        if (cashFlows.periods() < 2) { appendOutput("Pelo menos 2 cash flows"); return; }
+        double result;
+        if (cashFlows.signChanges() <= 1) {
+            // One sign change: a unique root, not limited to the irrAll scan range
+            try {
+                result = engine.irr(cashFlows);
+            } catch (ArithmeticException ex) {
+                appendOutput(ex.getMessage());
+                return;
+            }
+        } else {
+            double[] all = engine.irrAll(cashFlows, FinancialEngine.IRR_TOLERANCE);
+            if (all.length == 0) { appendOutput("IRR inexistente"); return; }
+            if (all.length > 1) {
+                StringBuilder sb = new StringBuilder("Múltiplas IRR:");
+                for (double r : all) sb.append(' ').append(engine.formatPercent(r));
+                appendOutput(sb.toString());
+                return;
+            }
+            result = all[0];
+        }
         displayMain.setText(engine.formatPercent(result));
         fieldI.setText(String.format("%.4f", result));
         appendOutput("IRR = " + engine.formatPercent(result));
@@ -411,27 +454,301 @@ public class FinancialCalculatorUI extends JFrame {
             int periods = (int) getRegValue(fieldN);
             if (principal == 0 || periods == 0) { appendOutput("PV e N necessários"); return; }
 
-            List<FinancialEngine.AmortRow> schedule = engine.amortizationSchedule(principal, rate, periods);
-            StringBuilder sb = new StringBuilder();
-            sb.append(String.format("%-5s %12s %12s %12s %12s%n", "Per", "Pagamento", "Juros", "Principal", "Saldo"));
-            sb.append("-".repeat(55)).append("\n");
-            double totalInterest = 0, totalPrincipal = 0;
-            for (FinancialEngine.AmortRow row : schedule) {
-                sb.append(String.format("%-5d %12s %12s %12s %12s%n",
-                        row.period, engine.format(row.payment), engine.format(row.interest),
-                        engine.format(row.principal), engine.format(row.balance)));
-                totalInterest += row.interest;
-                totalPrincipal += row.principal;
-            }
-            sb.append("-".repeat(55)).append("\n");
-            sb.append(String.format("TOTAL %12s %12s %12s%n", "", engine.format(totalInterest), engine.format(totalPrincipal)));
-            outputArea.setText(sb.toString());
-            outputArea.setCaretPosition(0);
+            AmortTableModel model = new AmortTableModel(engine, principal, rate, periods, beginMode.isSelected());
+            appendOutput("AMORT " + periods + " períodos: juros " + engine.format(model.totalInterest())
+                    + ", principal " + engine.format(model.totalPrincipal()));
+            showAmortTable(model);
         } catch (Exception ex) {
             appendOutput("Erro: " + ex.getMessage());
         }
     }
 
+    /** Schedule dialog; rows are formatted only as the table paints them. */
+    private void showAmortTable(AmortTableModel model) {
+        JDialog dialog = new JDialog(this, "Tabela de Amortização", false);
+        dialog.setSize(600, 560);
+        dialog.setLocationRelativeTo(this);
+        dialog.getContentPane().setBackground(Theme.BG_DARK);
+        dialog.setLayout(new BorderLayout(0, 4));
+        dialog.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+
+        JTable table = new JTable(model);
+        table.setFont(new Font("Consolas", Font.PLAIN, 12));
+        table.setForeground(Theme.TEXT_PRIMARY);
+        table.setBackground(Theme.BG_SURFACE);
+        table.setGridColor(Theme.BG_OVERLAY);
+        table.setRowHeight(20);
+        table.setDefaultRenderer(Double.class, new DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setHorizontalAlignment(SwingConstants.RIGHT);
+                setText(engine.format((Double) value));
+            }
+        });
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int col = table.columnAtPoint(e.getPoint());
+                if (col >= 0) model.sortBy(table.convertColumnIndexToModel(col));
+            }
+        });
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setBorder(new EmptyBorder(8, 8, 0, 8));
+        scroll.getViewport().setBackground(Theme.BG_SURFACE);
+        dialog.add(scroll, BorderLayout.CENTER);
+
+        JPanel footer = Theme.createDarkPanel();
+        footer.setLayout(new FlowLayout(FlowLayout.LEFT, 8, 6));
+        footer.add(Theme.createLabel("TOTAL  pago " + engine.format(model.totalPayment())
+                + "  juros " + engine.format(model.totalInterest())
+                + "  principal " + engine.format(model.totalPrincipal()),
+                new Font("Consolas", Font.BOLD, 12), Theme.ACCENT_GREEN));
+        JButton exportBtn = Theme.functionButton("CSV");
+        exportBtn.setPreferredSize(new Dimension(60, 30));
+        exportBtn.addActionListener(e -> exportAmortCsv(dialog, model, exportBtn));
+        footer.add(exportBtn);
+        dialog.add(footer, BorderLayout.SOUTH);
+
+        dialog.setVisible(true);
+    }
+
+    private void exportAmortCsv(JDialog dialog, AmortTableModel model, JButton exportBtn) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("amortizacao.csv"));
+        if (chooser.showSaveDialog(dialog) != JFileChooser.APPROVE_OPTION) return;
+        java.io.File file = chooser.getSelectedFile();
+        exportBtn.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                try (java.io.Writer out = java.nio.file.Files.newBufferedWriter(file.toPath())) {
+                    model.exportCsv(out);
+                }
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                exportBtn.setEnabled(true);
+                try {
+                    get();
+                } catch (Exception ex) {
+                    JOptionPane.showMessageDialog(dialog, "Erro ao exportar: " + ex.getMessage(), "Amortização", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    /** Excel-style data table over the current registers, shown as a table with optional heatmap. */
+    private void openDataTable() {
+        JDialog dialog = new JDialog(this, "Tabela de Dados", false);
+        dialog.setSize(720, 560);
+        dialog.setLocationRelativeTo(this);
+        dialog.getContentPane().setBackground(Theme.BG_DARK);
+        dialog.setLayout(new BorderLayout(0, 4));
+        dialog.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+
+        JComboBox<DataTable.Target> targetBox = new JComboBox<>(DataTable.Target.values());
+        JComboBox<DataTable.Input> rowBox = new JComboBox<>(DataTable.Input.values());
+        rowBox.setSelectedItem(DataTable.Input.I);
+        JComboBox<Object> colBox = new JComboBox<>();
+        colBox.addItem("—");
+        for (DataTable.Input input : DataTable.Input.values()) colBox.addItem(input);
+        colBox.setSelectedItem(DataTable.Input.N);
+        JTextField rowFrom = createSmallField("0.5"), rowTo = createSmallField("2"), rowCount = createSmallField("16");
+        JTextField colFrom = createSmallField("12"), colTo = createSmallField("360"), colCount = createSmallField("30");
+        JCheckBox heatmap = new JCheckBox("Mapa de calor", true);
+        heatmap.setFont(Theme.LABEL_FONT);
+        heatmap.setForeground(Theme.TEXT_DIM);
+        heatmap.setBackground(Theme.BG_DARK);
+        JButton applyBtn = Theme.functionButton("Gerar");
+        applyBtn.setPreferredSize(new Dimension(70, 30));
+
+        JPanel settings = Theme.createDarkPanel();
+        settings.setLayout(new GridLayout(3, 1, 0, 2));
+        JPanel line1 = Theme.createDarkPanel();
+        line1.setLayout(new FlowLayout(FlowLayout.LEFT, 6, 2));
+        line1.add(Theme.createLabel("Resultado", Theme.LABEL_FONT, Theme.TEXT_DIM));
+        line1.add(targetBox);
+        line1.add(heatmap);
+        line1.add(applyBtn);
+        JPanel line2 = Theme.createDarkPanel();
+        line2.setLayout(new FlowLayout(FlowLayout.LEFT, 6, 2));
+        line2.add(Theme.createLabel("Linhas", Theme.LABEL_FONT, Theme.TEXT_DIM));
+        line2.add(rowBox);
+        line2.add(rowFrom);
+        line2.add(Theme.createLabel("até", Theme.LABEL_FONT, Theme.TEXT_DIM));
+        line2.add(rowTo);
+        line2.add(Theme.createLabel("pontos", Theme.LABEL_FONT, Theme.TEXT_DIM));
+        line2.add(rowCount);
+        JPanel line3 = Theme.createDarkPanel();
+        line3.setLayout(new FlowLayout(FlowLayout.LEFT, 6, 2));
+        line3.add(Theme.createLabel("Colunas", Theme.LABEL_FONT, Theme.TEXT_DIM));
+        line3.add(colBox);
+        line3.add(colFrom);
+        line3.add(Theme.createLabel("até", Theme.LABEL_FONT, Theme.TEXT_DIM));
+        line3.add(colTo);
+        line3.add(Theme.createLabel("pontos", Theme.LABEL_FONT, Theme.TEXT_DIM));
+        line3.add(colCount);
+        settings.add(line1);
+        settings.add(line2);
+        settings.add(line3);
+        dialog.add(settings, BorderLayout.NORTH);
+
+        JTable table = new JTable();
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+        table.setFont(new Font("Consolas", Font.PLAIN, 12));
+        table.setForeground(Theme.TEXT_PRIMARY);
+        table.setBackground(Theme.BG_SURFACE);
+        table.setGridColor(Theme.BG_OVERLAY);
+        table.setRowHeight(20);
+        table.setDefaultRenderer(Double.class, new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable t, Object value, boolean selected,
+                                                           boolean focus, int row, int col) {
+                super.getTableCellRendererComponent(t, value, selected, focus, row, col);
+                setHorizontalAlignment(SwingConstants.RIGHT);
+                double v = (Double) value;
+                if (col == 0) {
+                    setText(DataGridModel.axisText(v));
+                    setBackground(Theme.BG_OVERLAY);
+                } else {
+                    setText(engine.format(v));
+                    Color bg = Theme.BG_SURFACE;
+                    if (heatmap.isSelected() && t.getModel() instanceof DataGridModel model) {
+                        bg = blend(Theme.BG_SURFACE, Theme.ACCENT_BLUE, 0.75 * model.heat(v));
+                    }
+                    if (!selected) setBackground(bg);
+                }
+                return this;
+            }
+        });
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setBorder(new EmptyBorder(0, 8, 8, 8));
+        scroll.getViewport().setBackground(Theme.BG_SURFACE);
+        dialog.add(scroll, BorderLayout.CENTER);
+        heatmap.addActionListener(e -> table.repaint());
+
+        applyBtn.addActionListener(e -> {
+            DataTable dataTable;
+            DataTable.Input rowInput = (DataTable.Input) rowBox.getSelectedItem();
+            DataTable.Input colInput = colBox.getSelectedItem() instanceof DataTable.Input c ? c : null;
+            double[] rowValues, colValues;
+            try {
+                DataTable.Target target = (DataTable.Target) targetBox.getSelectedItem();
+                rowValues = DataTable.range(parseField(rowFrom), parseField(rowTo), (int) parseField(rowCount));
+                colValues = colInput == null ? null
+                        : DataTable.range(parseField(colFrom), parseField(colTo), (int) parseField(colCount));
+                dataTable = new DataTable(target)
+                        .setBase(getRegValue(fieldN), getRegValue(fieldI), getRegValue(fieldPV),
+                                getRegValue(fieldPMT), getRegValue(fieldFV), beginMode.isSelected())
+                        .setRows(rowInput, rowValues)
+                        .setColumns(colInput, colValues);
+                if (target == DataTable.Target.NPV) {
+                    dataTable.setCashFlows(cashFlows);
+                }
+            } catch (RuntimeException ex) {
+                JOptionPane.showMessageDialog(dialog, "Parâmetros inválidos: " + ex.getMessage(), "Tabela", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            DataTable grid = dataTable;
+            String colLabel = colInput == null ? null : colInput.name();
+            double[] columns = colInput == null ? new double[1] : colValues;
+            applyBtn.setEnabled(false);
+            new SwingWorker<DataGridModel, Void>() {
+                @Override
+                protected DataGridModel doInBackground() {
+                    return new DataGridModel(rowInput.name(), rowValues, colLabel, columns, grid.compute());
+                }
+
+                @Override
+                protected void done() {
+                    applyBtn.setEnabled(true);
+                    try {
+                        table.setModel(get());
+                        for (int c = 0; c < table.getColumnCount(); c++) {
+                            table.getColumnModel().getColumn(c).setPreferredWidth(c == 0 ? 70 : 110);
+                        }
+                    } catch (Exception ex) {
+                        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                        JOptionPane.showMessageDialog(dialog, "Erro: " + cause.getMessage(), "Tabela", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }.execute();
+        });
+
+        applyBtn.doClick();
+        dialog.setVisible(true);
+    }
+
+    /** Goal seek: solves one register so that a target function reaches a given value. */
+    private void openGoalSeek() {
+        JComboBox<DataTable.Target> targetBox = new JComboBox<>(DataTable.Target.values());
+        JComboBox<DataTable.Input> inputBox = new JComboBox<>(DataTable.Input.values());
+        inputBox.setSelectedItem(DataTable.Input.I);
+        JTextField goalField = createSmallField("0");
+        JPanel panel = new JPanel(new GridLayout(3, 2, 6, 4));
+        panel.add(new JLabel("Resultado"));
+        panel.add(targetBox);
+        panel.add(new JLabel("igual a"));
+        panel.add(goalField);
+        panel.add(new JLabel("variando"));
+        panel.add(inputBox);
+        if (JOptionPane.showConfirmDialog(this, panel, "Atingir Meta", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) return;
+
+        try {
+            DataTable.Target target = (DataTable.Target) targetBox.getSelectedItem();
+            DataTable.Input input = (DataTable.Input) inputBox.getSelectedItem();
+            DataTable table = new DataTable(target)
+                    .setBase(getRegValue(fieldN), getRegValue(fieldI), getRegValue(fieldPV),
+                            getRegValue(fieldPMT), getRegValue(fieldFV), beginMode.isSelected());
+            if (target == DataTable.Target.NPV) {
+                table.setCashFlows(cashFlows);
+            }
+            JTextField field = switch (input) {
+                case N -> fieldN;
+                case I -> fieldI;
+                case PV -> fieldPV;
+                case PMT -> fieldPMT;
+                case FV -> fieldFV;
+            };
+            GoalSeek seek = new GoalSeek(table.function(input)).setGuess(getRegValue(field));
+            if (input == DataTable.Input.I) seek.setBounds(-99.999999, 1e6);
+            if (input == DataTable.Input.N) seek.setBounds(1e-9, 1e6);
+            GoalSeek.Result r = seek.seek(parseField(goalField));
+            if (Double.isNaN(r.value)) { appendOutput("Meta inatingível para " + input); return; }
+            String formatted = engine.format(r.value);
+            field.setText(formatted);
+            displayMain.setText(formatted);
+            appendOutput("Meta " + target + " = " + goalField.getText().trim() + ": " + input + " = " + formatted
+                    + " (" + r.iterations + " iterações" + (r.converged ? "" : ", sem convergência") + ")");
+        } catch (RuntimeException ex) {
+            appendOutput("Erro: " + ex.getMessage());
+        }
+    }
+
+    private JTextField createSmallField(String text) {
+        JTextField field = new JTextField(text, 6);
+        field.setFont(new Font("Consolas", Font.PLAIN, 12));
+        field.setForeground(Theme.TEXT_PRIMARY);
+        field.setBackground(Theme.BG_SURFACE);
+        field.setCaretColor(Theme.TEXT_PRIMARY);
+        field.setBorder(new EmptyBorder(4, 6, 4, 6));
+        return field;
+    }
+
+    private static double parseField(JTextField field) {
+        return Double.parseDouble(field.getText().trim().replace(',', '.'));
+    }
+
+    private static Color blend(Color from, Color to, double t) {
+        return new Color(
+                (int) Math.round(from.getRed() + (to.getRed() - from.getRed()) * t),
+                (int) Math.round(from.getGreen() + (to.getGreen() - from.getGreen()) * t),
+                (int) Math.round(from.getBlue() + (to.getBlue() - from.getBlue()) * t));
+    }
+
     private void calcDeprSL() {
         try {
             double cost = Math.abs(getRegValue(fieldPV));
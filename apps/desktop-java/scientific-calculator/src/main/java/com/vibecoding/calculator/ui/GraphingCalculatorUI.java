@@ -1,6 +1,10 @@
 package com.vibecoding.calculator.ui;
 
+import com.vibecoding.calculator.graph.DataSeries;
+import com.vibecoding.calculator.graph.GraphExporter;
 import com.vibecoding.calculator.graph.GraphPanel;
+import com.vibecoding.calculator.graph.GraphRenderer;
+import com.vibecoding.calculator.parser.CompiledExpression;
 import com.vibecoding.calculator.parser.ExpressionParser;
 
 import javax.swing.*;
@@ -152,8 +156,34 @@ public class GraphingCalculatorUI extends JFrame {
 
         togglePanel.add(gridCheck);
         togglePanel.add(axesCheck);
+        JCheckBox diagCheck = new JCheckBox("Diag.", false);
+        styleCheck(diagCheck);
+        diagCheck.setToolTipText("Tempo de quadro, avaliações e cache");
+        diagCheck.addActionListener(e -> graphPanel.setShowDiagnostics(diagCheck.isSelected()));
+
         togglePanel.add(degCheck);
+        togglePanel.add(diagCheck);
         rightPanel.add(togglePanel);
+        rightPanel.add(Box.createVerticalStrut(8));
+
+        // Tools
+        JPanel toolsPanel = Theme.createDarkPanel();
+        toolsPanel.setLayout(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        toolsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        toolsPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 38));
+
+        JButton tableBtn = Theme.functionButton("Tabela");
+        tableBtn.addActionListener(e -> openValueTable());
+        toolsPanel.add(tableBtn);
+
+        JButton dataBtn = Theme.functionButton("Dados CSV");
+        dataBtn.addActionListener(e -> importDataSeries(dataBtn));
+        toolsPanel.add(dataBtn);
+
+        JButton exportBtn = Theme.functionButton("Exportar");
+        exportBtn.addActionListener(e -> exportGraph(exportBtn));
+        toolsPanel.add(exportBtn);
+        rightPanel.add(toolsPanel);
         rightPanel.add(Box.createVerticalStrut(16));
 
         // Quick evaluate
@@ -238,6 +268,7 @@ public class GraphingCalculatorUI extends JFrame {
         functionRows.clear();
         functionListPanel.removeAll();
         graphPanel.clearFunctions();
+        graphPanel.clearDataSeries();
         functionListPanel.revalidate();
         functionListPanel.repaint();
         addFunctionRow();
@@ -257,6 +288,190 @@ public class GraphingCalculatorUI extends JFrame {
         }
     }
 
+    private void importDataSeries(JButton source) {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        source.setEnabled(false);
+        new SwingWorker<DataSeries, Void>() {
+            @Override
+            protected DataSeries doInBackground() throws Exception {
+                return DataSeries.loadCsv(file);
+            }
+
+            @Override
+            protected void done() {
+                source.setEnabled(true);
+                try {
+                    DataSeries series = get();
+                    graphPanel.addDataSeries(series);
+                    graphPanel.zoomToData(series);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(GraphingCalculatorUI.this, "Erro ao carregar: " + cause.getMessage(),
+                            "Dados", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    private void exportGraph(JButton source) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("grafico.png"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        GraphRenderer renderer = graphPanel.snapshot();
+        // Twice the on-screen size: the viewport is the same, only sharper
+        int width = Math.max(graphPanel.getWidth(), 1) * 2;
+        int height = Math.max(graphPanel.getHeight(), 1) * 2;
+        source.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                GraphExporter.export(renderer, width, height, file);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                source.setEnabled(true);
+                try {
+                    get();
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(GraphingCalculatorUI.this, "Erro ao exportar: " + cause.getMessage(),
+                            "Exportar", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    private void openValueTable() {
+        List<String> names = new ArrayList<>();
+        List<CompiledExpression> compiled = new ArrayList<>();
+        List<GraphPanel.FunctionEntry> entries = graphPanel.getFunctions();
+        for (int i = 0; i < entries.size(); i++) {
+            String expr = entries.get(i).expression;
+            if (expr == null || expr.trim().isEmpty()) continue;
+            try {
+                compiled.add(CompiledExpression.compile(expr, useDegrees));
+                names.add("f" + (i + 1));
+            } catch (ArithmeticException ignored) {
+                // Incomplete expressions are skipped, as in the graph
+            }
+        }
+        if (compiled.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Nenhuma função válida para tabelar.", "Tabela", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        JDialog dialog = new JDialog(this, "Tabela de Valores", false);
+        dialog.setSize(520, 560);
+        dialog.setLocationRelativeTo(this);
+        dialog.getContentPane().setBackground(Theme.BG_DARK);
+        dialog.setLayout(new BorderLayout(0, 4));
+
+        JTextField startField = createTableField("-10");
+        JTextField stepField = createTableField("0.1");
+        JTextField rowsField = createTableField("201");
+
+        JPanel settings = Theme.createDarkPanel();
+        settings.setLayout(new FlowLayout(FlowLayout.LEFT, 6, 6));
+        settings.add(Theme.createLabel("Início", Theme.LABEL_FONT, Theme.TEXT_DIM));
+        settings.add(startField);
+        settings.add(Theme.createLabel("Passo", Theme.LABEL_FONT, Theme.TEXT_DIM));
+        settings.add(stepField);
+        settings.add(Theme.createLabel("Linhas", Theme.LABEL_FONT, Theme.TEXT_DIM));
+        settings.add(rowsField);
+        JButton applyBtn = Theme.functionButton("Gerar");
+        applyBtn.setPreferredSize(new Dimension(70, 30));
+        JButton exportBtn = Theme.functionButton("CSV");
+        exportBtn.setPreferredSize(new Dimension(60, 30));
+        settings.add(applyBtn);
+        settings.add(exportBtn);
+        dialog.add(settings, BorderLayout.NORTH);
+
+        JTable table = new JTable();
+        table.setFont(new Font("Consolas", Font.PLAIN, 12));
+        table.setForeground(Theme.TEXT_PRIMARY);
+        table.setBackground(Theme.BG_SURFACE);
+        table.setGridColor(Theme.BG_OVERLAY);
+        table.setRowHeight(20);
+        table.setDefaultRenderer(Double.class, new javax.swing.table.DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setHorizontalAlignment(SwingConstants.RIGHT);
+                setText(value == null ? "\u2026" : formatResult((Double) value));
+            }
+        });
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setBorder(new EmptyBorder(0, 8, 8, 8));
+        scroll.getViewport().setBackground(Theme.BG_SURFACE);
+        dialog.add(scroll, BorderLayout.CENTER);
+
+        Runnable rebuild = () -> {
+            try {
+                double start = Double.parseDouble(startField.getText().trim());
+                double step = Double.parseDouble(stepField.getText().trim());
+                int rows = Integer.parseInt(rowsField.getText().trim());
+                if (rows <= 0 || step == 0) throw new NumberFormatException();
+                if (table.getModel() instanceof ValueTableModel old) old.dispose();
+                table.setModel(new ValueTableModel(names, compiled, start, step, rows));
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(dialog, "Parâmetros inválidos", "Tabela", JOptionPane.ERROR_MESSAGE);
+            }
+        };
+        applyBtn.addActionListener(e -> rebuild.run());
+        exportBtn.addActionListener(e -> {
+            if (!(table.getModel() instanceof ValueTableModel model)) return;
+            JFileChooser chooser = new JFileChooser();
+            chooser.setSelectedFile(new java.io.File("tabela.csv"));
+            if (chooser.showSaveDialog(dialog) != JFileChooser.APPROVE_OPTION) return;
+            java.io.File file = chooser.getSelectedFile();
+            exportBtn.setEnabled(false);
+            new SwingWorker<Void, Void>() {
+                @Override
+                protected Void doInBackground() throws Exception {
+                    try (java.io.Writer out = java.nio.file.Files.newBufferedWriter(file.toPath())) {
+                        model.exportCsv(out);
+                    }
+                    return null;
+                }
+
+                @Override
+                protected void done() {
+                    exportBtn.setEnabled(true);
+                    try {
+                        get();
+                    } catch (Exception ex) {
+                        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                        JOptionPane.showMessageDialog(dialog, "Erro ao exportar: " + cause.getMessage(), "Tabela", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }.execute();
+        });
+        dialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                if (table.getModel() instanceof ValueTableModel model) model.dispose();
+            }
+        });
+        dialog.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+
+        rebuild.run();
+        dialog.setVisible(true);
+    }
+
+    private JTextField createTableField(String text) {
+        JTextField field = new JTextField(text, 7);
+        field.setFont(new Font("Consolas", Font.PLAIN, 12));
+        field.setForeground(Theme.TEXT_PRIMARY);
+        field.setBackground(Theme.BG_SURFACE);
+        field.setCaretColor(Theme.TEXT_PRIMARY);
+        field.setBorder(new EmptyBorder(4, 6, 4, 6));
+        return field;
+    }
+
     private String formatResult(double value) {
         if (Double.isNaN(value)) return "NaN";
         if (Double.isInfinite(value)) return value > 0 ? "\u221E" : "-\u221E";
@@ -0,0 +1,155 @@
+package com.vibecoding.calculator.ui;
+
+import com.vibecoding.calculator.parser.CompiledExpression;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lazy table of values (HP 50G TABLE mode): x = start + row * step.
+ * Rows are computed in blocks on a background thread only when the JTable
+ * asks for them, and only a bounded window of recent blocks is kept, so
+ * memory stays constant regardless of the row count.
+ */
+class ValueTableModel extends AbstractTableModel {
+    static final int BLOCK_SIZE = 256;
+    private static final int MAX_CACHED_BLOCKS = 64;
+
+    private final String[] names;
+    private final CompiledExpression[] functions;
+    private final double start;
+    private final double step;
+    private final int rows;
+
+    // Accessed on the EDT only
+    private final Map<Integer, double[]> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, double[]> eldest) {
+            return size() > MAX_CACHED_BLOCKS;
+        }
+    };
+    private final Set<Integer> pending = new HashSet<>();
+
+    private volatile int lastRequestedBlock;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "value-table");
+        t.setDaemon(true);
+        return t;
+    });
+
+    ValueTableModel(List<String> names, List<CompiledExpression> functions, double start, double step, int rows) {
+        this.names = names.toArray(new String[0]);
+        this.functions = functions.toArray(new CompiledExpression[0]);
+        this.start = start;
+        this.step = step;
+        this.rows = rows;
+    }
+
+    @Override
+    public int getRowCount() { return rows; }
+
+    @Override
+    public int getColumnCount() { return functions.length + 1; }
+
+    @Override
+    public String getColumnName(int col) { return col == 0 ? "x" : names[col - 1]; }
+
+    @Override
+    public Class<?> getColumnClass(int col) { return Double.class; }
+
+    double xAt(int row) { return start + row * step; }
+
+    /** Returns the cached value, or null while its block is being computed. */
+    @Override
+    public Object getValueAt(int row, int col) {
+        if (col == 0) return xAt(row);
+        int block = row / BLOCK_SIZE;
+        double[] data = cache.get(block);
+        if (data == null) {
+            request(block);
+            return null;
+        }
+        return data[(row - block * BLOCK_SIZE) * functions.length + col - 1];
+    }
+
+    private void request(int block) {
+        // Repaints queued before dispose() must not reach the stopped executor
+        if (executor.isShutdown()) return;
+        lastRequestedBlock = block;
+        if (!pending.add(block)) return;
+        executor.execute(() -> {
+            // Skip blocks the user has already scrolled far away from
+            if (Math.abs(block - lastRequestedBlock) > MAX_CACHED_BLOCKS / 2) {
+                SwingUtilities.invokeLater(() -> pending.remove(block));
+                return;
+            }
+            double[] data = computeBlock(block);
+            SwingUtilities.invokeLater(() -> {
+                pending.remove(block);
+                cache.put(block, data);
+                int first = block * BLOCK_SIZE;
+                fireTableRowsUpdated(first, Math.min(first + BLOCK_SIZE, rows) - 1);
+            });
+        });
+    }
+
+    private double[] computeBlock(int block) {
+        int first = block * BLOCK_SIZE;
+        int count = Math.min(BLOCK_SIZE, rows - first);
+        int nf = functions.length;
+        double[] data = new double[count * nf];
+        for (int f = 0; f < nf; f++) {
+            CompiledExpression fn = functions[f];
+            CompiledExpression.Workspace ws = fn.newWorkspace();
+            for (int r = 0; r < count; r++) {
+                data[r * nf + f] = evaluate(fn, xAt(first + r), ws);
+            }
+        }
+        return data;
+    }
+
+    private static double evaluate(CompiledExpression fn, double x, CompiledExpression.Workspace ws) {
+        try {
+            return fn.evaluate(x, ws);
+        } catch (ArithmeticException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Streams the whole table as CSV, one row at a time, without touching
+     * the block cache. Safe to call off the EDT.
+     */
+    void exportCsv(Writer out) throws IOException {
+        int nf = functions.length;
+        CompiledExpression.Workspace[] ws = new CompiledExpression.Workspace[nf];
+        for (int f = 0; f < nf; f++) ws[f] = functions[f].newWorkspace();
+
+        StringBuilder line = new StringBuilder("x");
+        for (String name : names) line.append(',').append(name);
+        out.write(line.append('\n').toString());
+
+        for (int r = 0; r < rows; r++) {
+            double x = xAt(r);
+            line.setLength(0);
+            line.append(x);
+            for (int f = 0; f < nf; f++) {
+                line.append(',').append(evaluate(functions[f], x, ws[f]));
+            }
+            out.write(line.append('\n').toString());
+        }
+    }
+
+    void dispose() {
+        executor.shutdownNow();
+    }
+}
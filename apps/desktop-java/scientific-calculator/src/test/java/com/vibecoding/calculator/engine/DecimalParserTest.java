@@ -0,0 +1,99 @@
+package com.vibecoding.calculator.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DecimalParserTest {
+
+    @Test
+    void boundariesMatchParseDouble() {
+        String[] cases = {
+            "0", "-0", "0.0", "-0.0", "0e10", "1", "-1", "0.1", "0.3", "1e23", "8.98846567431158e307",
+            // Subnormals and the smallest normal
+            "4.9e-324", "5e-324", "2.4703282292062327e-324", "2.4703282292062328e-324",
+            "2.225073858507201e-308", "2.2250738585072011e-308", "2.2250738585072014e-308", "1e-320",
+            // Largest finite value and its overflow neighbours
+            "1.7976931348623157e308", "1.7976931348623158e308", "1.7976931348623159e308", "1.8e308", "1e309",
+            "1e-400",
+            // 19-digit mantissas and the first values past the long range
+            "1234567890123456789", "9999999999999999999", "9223372036854775807", "9223372036854775808",
+            "18446744073709551615", "0.1234567890123456789", "1.000000000000000000001",
+            // Halfway between two doubles: ties go to even
+            "9007199254740993", "9007199254740995", "9007199254740993.0000000001",
+            "2.0000000000000002220446049250313080847263336181640625", "1.00000000000000011102230246251565404236316680908203125",
+            "123456789012345678e-30", "7.2057594037927933e16", "1.5e-5", "1E+2", "1.", ".5",
+            "NaN", "Infinity", "-Infinity"
+        };
+        for (String s : cases) assertParses(s);
+    }
+
+    @Test
+    void negativeZeroKeepsItsSign() {
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(parse("-0")));
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(parse("-0.000e5")));
+    }
+
+    @Test
+    void blanksAndQuotesAreDropped() {
+        assertEquals(1.5, parse("  1.5 "));
+        assertEquals(-3, parse("\t-3\t"));
+        assertEquals(2.5, parse("\"2.5\""));
+        assertEquals(1e-3, parse(" \"1e-3\" "));
+        assertTrue(Double.isNaN(parse("")));
+        assertTrue(Double.isNaN(parse(" \t ")));
+        assertTrue(Double.isNaN(parse("\"\"")));
+    }
+
+    @Test
+    void invalidNumbersFail() {
+        for (String s : new String[]{"abc", "1e", "--1", "1.2.3", "0x10", "1,5", "e5"}) {
+            assertThrows(IllegalArgumentException.class, () -> parse(s), s);
+        }
+    }
+
+    @Test
+    void randomDoublesRoundTrip() {
+        SplittableRandom random = new SplittableRandom(2024);
+        for (int k = 0; k < 200_000; k++) {
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(d)) continue;
+            assertParses(Double.toString(d));
+            // Eighteen significant digits, closer to the midpoints than the shortest form
+            assertParses(String.format(Locale.ROOT, "%.17e", d));
+        }
+    }
+
+    @Test
+    void randomDigitStringsMatchParseDouble() {
+        SplittableRandom random = new SplittableRandom(7);
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < 200_000; k++) {
+            sb.setLength(0);
+            if (random.nextBoolean()) sb.append('-');
+            int digits = 1 + random.nextInt(25);
+            int point = random.nextInt(digits + 1);
+            for (int i = 0; i < digits; i++) {
+                if (i == point) sb.append('.');
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+            sb.append('e').append(random.nextInt(700) - 350);
+            assertParses(sb.toString());
+        }
+    }
+
+    private static double parse(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.ISO_8859_1);
+        return DecimalParser.parse(bytes, 0, bytes.length);
+    }
+
+    private static void assertParses(String s) {
+        assertEquals(Double.doubleToRawLongBits(Double.parseDouble(s)), Double.doubleToRawLongBits(parse(s)), s);
+    }
+}
@@ -0,0 +1,115 @@
+package com.vibecoding.calculator.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    @Test
+    void roundDivTiesInEveryMode() {
+        // 5/2 and 7/2 are ties below an even and an odd quotient
+        assertEquals(2, Money.roundDiv(5, 2, RoundingMode.HALF_EVEN));
+        assertEquals(-2, Money.roundDiv(-5, 2, RoundingMode.HALF_EVEN));
+        assertEquals(4, Money.roundDiv(7, 2, RoundingMode.HALF_EVEN));
+        assertEquals(-4, Money.roundDiv(-7, 2, RoundingMode.HALF_EVEN));
+        assertEquals(3, Money.roundDiv(5, 2, RoundingMode.HALF_UP));
+        assertEquals(-3, Money.roundDiv(-5, 2, RoundingMode.HALF_UP));
+        assertEquals(2, Money.roundDiv(5, 2, RoundingMode.HALF_DOWN));
+        assertEquals(-2, Money.roundDiv(-5, 2, RoundingMode.HALF_DOWN));
+        assertEquals(3, Money.roundDiv(5, 2, RoundingMode.UP));
+        assertEquals(-3, Money.roundDiv(-5, 2, RoundingMode.UP));
+        assertEquals(2, Money.roundDiv(5, 2, RoundingMode.DOWN));
+        assertEquals(-2, Money.roundDiv(-5, 2, RoundingMode.DOWN));
+        assertEquals(3, Money.roundDiv(5, 2, RoundingMode.CEILING));
+        assertEquals(-2, Money.roundDiv(-5, 2, RoundingMode.CEILING));
+        assertEquals(2, Money.roundDiv(5, 2, RoundingMode.FLOOR));
+        assertEquals(-3, Money.roundDiv(-5, 2, RoundingMode.FLOOR));
+        assertEquals(-4, Money.roundDiv(-8, 2, RoundingMode.UNNECESSARY));
+        assertThrows(ArithmeticException.class, () -> Money.roundDiv(5, 2, RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    void roundDivMatchesBigDecimal() {
+        long[] dividends = {1, 2, 3, 5, 7, 10, 11, 99, 101, 1_000_000_007L, Long.MAX_VALUE, Long.MAX_VALUE - 1};
+        long[] divisors = {1, 2, 3, 4, 10, 100, 7, Long.MAX_VALUE};
+        for (RoundingMode mode : RoundingMode.values()) {
+            if (mode == RoundingMode.UNNECESSARY) continue;
+            for (long p : dividends) {
+                for (long d : divisors) {
+                    for (long signed : new long[]{p, -p}) {
+                        long expected = BigDecimal.valueOf(signed).divide(BigDecimal.valueOf(d), 0, mode).longValueExact();
+                        assertEquals(expected, Money.roundDiv(signed, d, mode), signed + " / " + d + " " + mode);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void mulDivFallsBackToBigDecimalOnOverflow() {
+        // a * 3 overflows a long; the quotient still fits
+        for (long a : new long[]{Long.MAX_VALUE / 2, -(Long.MAX_VALUE / 2)}) {
+            for (RoundingMode mode : new RoundingMode[]{RoundingMode.HALF_EVEN, RoundingMode.HALF_UP, RoundingMode.FLOOR}) {
+                long expected = BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(3))
+                        .divide(BigDecimal.valueOf(4), 0, mode).longValueExact();
+                assertEquals(expected, Money.mulDiv(a, 3, 4, mode), a + " " + mode);
+            }
+        }
+        assertEquals(Money.mulDiv(7, -3, 2, RoundingMode.HALF_UP), Money.mulDiv(7, 3, -2, RoundingMode.HALF_UP));
+        assertThrows(ArithmeticException.class, () -> Money.mulDiv(Long.MAX_VALUE, 3, 2, RoundingMode.HALF_EVEN));
+    }
+
+    @Test
+    void doublesRoundTheWayTheyLook() {
+        assertEquals(268, Money.of(2.675, 2, RoundingMode.HALF_UP).units());
+        assertEquals(-268, Money.of(-2.675, 2, RoundingMode.HALF_UP).units());
+        assertEquals(268, Money.of(2.675, 2, RoundingMode.HALF_EVEN).units());
+        assertEquals(12, Money.of(0.125, 2, RoundingMode.HALF_EVEN).units());
+        assertEquals(30, Money.of(0.1 + 0.2, 2, RoundingMode.HALF_EVEN).units());
+    }
+
+    @Test
+    void allocateSplitsNegativeAmounts() {
+        assertArrayEquals(new long[]{-34, -33, -33}, units(Money.ofMinor(-100, 2).allocate(3)));
+        assertArrayEquals(new long[]{-1, 0, 0}, units(Money.ofMinor(-1, 2).allocate(3)));
+        assertArrayEquals(new long[]{34, 33, 33}, units(Money.ofMinor(100, 2).allocate(3)));
+        long total = 0;
+        for (long u : units(Money.ofMinor(-1_000_003, 2).allocate(7))) total += u;
+        assertEquals(-1_000_003, total);
+    }
+
+    @Test
+    void amortizationScheduleEndsAtZero() {
+        FinancialEngine engine = new FinancialEngine();
+        Money principal = Money.of(250_000.00);
+        int n = 360;
+        long[] payments = new long[n], interests = new long[n], principals = new long[n], balances = new long[n];
+        for (RoundingMode mode : new RoundingMode[]{RoundingMode.HALF_EVEN, RoundingMode.HALF_UP, RoundingMode.DOWN}) {
+            engine.amortizationSchedule(principal, 0.75, n, mode, payments, interests, principals, balances, 0);
+            long paid = 0, interest = 0, repaid = 0;
+            for (int p = 0; p < n; p++) {
+                assertEquals(payments[p], interests[p] + principals[p], "período " + (p + 1));
+                paid += payments[p];
+                interest += interests[p];
+                repaid += principals[p];
+            }
+            assertEquals(0, balances[n - 1]);
+            assertEquals(principal.units(), repaid);
+            assertEquals(paid, interest + repaid);
+            long level = engine.amortPayment(principal, 0.75, n, false, mode).units();
+            for (int p = 0; p < n - 1; p++) assertEquals(level, payments[p]);
+        }
+    }
+
+    private static long[] units(Money[] amounts) {
+        long[] out = new long[amounts.length];
+        for (int k = 0; k < amounts.length; k++) out[k] = amounts[k].units();
+        return out;
+    }
+}
@@ -0,0 +1,72 @@
+package com.vibecoding.calculator.engine;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RegressionTest {
+    // NIST StRD Longley: Employed against GNP deflator, GNP, Unemployed,
+    // Armed Forces, Population and Year, 1947-1962
+    private static final double[] LONGLEY_Y = {
+        60323, 61122, 60171, 61187, 63221, 63639, 64989, 63761,
+        66019, 67857, 68169, 66513, 68655, 69564, 69331, 70551
+    };
+    private static final double[][] LONGLEY_X = {
+        {83, 88.5, 88.2, 89.5, 96.2, 98.1, 99, 100, 101.2, 104.6, 108.4, 110.8, 112.6, 114.2, 115.7, 116.9},
+        {234289, 259426, 258054, 284599, 328975, 346999, 365385, 363112,
+         397469, 419180, 442769, 444546, 482704, 502601, 518173, 554894},
+        {2356, 2325, 3682, 3351, 2099, 1932, 1870, 3578, 2904, 2822, 2936, 4681, 3813, 3931, 4806, 4007},
+        {1590, 1456, 1616, 1650, 3099, 3594, 3547, 3350, 3048, 2857, 2798, 2637, 2552, 2514, 2572, 2827},
+        {107608, 108632, 109773, 110929, 112075, 113270, 115094, 116219,
+         117388, 118734, 120445, 121950, 123366, 125368, 127852, 130081},
+        {1947, 1948, 1949, 1950, 1951, 1952, 1953, 1954, 1955, 1956, 1957, 1958, 1959, 1960, 1961, 1962}
+    };
+    private static final double[] CERTIFIED_COEFFICIENTS = {
+        -3482258.63459582, 15.0618722713733, -0.358191792925910E-01, -2.02022980381683,
+        -1.03322686717359, -0.511041056535807E-01, 1829.15146461355
+    };
+    private static final double[] CERTIFIED_ERRORS = {
+        890420.383607373, 84.9149257747669, 0.334910077722432E-01, 0.488399681651699,
+        0.214274163161675, 0.226073200069370, 455.478499142212
+    };
+
+    @ParameterizedTest
+    @EnumSource(Regression.Solver.class)
+    void longleyMatchesCertifiedValues(Regression.Solver solver) {
+        Regression.Result r = Regression.fit(LONGLEY_X, LONGLEY_Y, true, solver);
+        for (int k = 0; k < CERTIFIED_COEFFICIENTS.length; k++) {
+            assertEquals(CERTIFIED_COEFFICIENTS[k], r.coefficients[k], 1e-9 * Math.abs(CERTIFIED_COEFFICIENTS[k]), "b" + k);
+            assertEquals(CERTIFIED_ERRORS[k], r.standardErrors[k], 1e-9 * CERTIFIED_ERRORS[k], "se" + k);
+        }
+        assertEquals(0.995479004577296, r.rSquared, 1e-12);
+        assertEquals(304.854073561965, r.residualStdError, 1e-9 * 304.854073561965);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Regression.Solver.class)
+    void solversAgreeOnCollinearity(Regression.Solver solver) {
+        Random random = new Random(1);
+        int n = 200;
+        double[] x = new double[n], y = new double[n], noise = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextGaussian();
+            y[i] = random.nextGaussian();
+            noise[i] = random.nextGaussian();
+        }
+        assertThrows(ArithmeticException.class,
+                () -> Regression.fit(new double[][]{x, shifted(x, noise, 1e-9)}, y, true, solver));
+        assertDoesNotThrow(() -> Regression.fit(new double[][]{x, shifted(x, noise, 1e-5)}, y, true, solver));
+    }
+
+    /** 2x + 1 plus {@code scale} times the noise. */
+    private static double[] shifted(double[] x, double[] noise, double scale) {
+        double[] out = new double[x.length];
+        for (int i = 0; i < x.length; i++) out[i] = 2 * x[i] + 1 + scale * noise[i];
+        return out;
+    }
+}